@@ -0,0 +1,71 @@
+package com.example.ecom.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Catalog caches hold only static product data; stock counts are overlaid at
+ * response time from {@link com.example.ecom.service.ProductStockView}, so the
+ * cached entries can live long and are not churned by checkouts. Every cache is
+ * wrapped in a {@link SingleFlightCache}: entries are fresh for the configured TTL
+ * and kept for a further stale window, during which one request refreshes them.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig implements CachingConfigurer {
+
+    @Bean
+    public RedisCacheManagerBuilderCustomizer catalogCacheTtls(
+            @Value("${app.cache.ttl.products:3600}") long productsTtlSeconds,
+            @Value("${app.cache.ttl.categories:3600}") long categoriesTtlSeconds,
+            @Value("${app.cache.stale-window-seconds:300}") long staleWindowSeconds) {
+        return builder -> builder
+                .withCacheConfiguration("products", ttl(productsTtlSeconds + staleWindowSeconds))
+                .withCacheConfiguration("product", ttl(productsTtlSeconds + staleWindowSeconds))
+                .withCacheConfiguration("categories", ttl(categoriesTtlSeconds + staleWindowSeconds));
+    }
+
+    @Bean
+    public static BeanPostProcessor singleFlightCacheManager(
+            @Value("${app.cache.ttl.products:3600}") long productsTtlSeconds,
+            @Value("${app.cache.ttl.categories:3600}") long categoriesTtlSeconds,
+            @Value("${app.cache.early-refresh-beta:1.0}") double earlyRefreshBeta) {
+        Map<String, Long> freshMs = Map.of(
+                "products", productsTtlSeconds * 1000,
+                "product", productsTtlSeconds * 1000,
+                "categories", categoriesTtlSeconds * 1000);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager && !(bean instanceof SingleFlightCacheManager)) {
+                    return new SingleFlightCacheManager(cacheManager, freshMs, productsTtlSeconds * 1000, earlyRefreshBeta);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // A cache outage degrades to uncached reads instead of failing the request
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+
+    private static RedisCacheConfiguration ttl(long seconds) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofSeconds(seconds))
+                .disableCachingNullValues();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ecom.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured pool when replica routing or workload pools are
+ * enabled: the default primary pool is still bound from {@code spring.datasource},
+ * and each workload and replica gets its own Hikari pool behind {@link RoutingDataSource}.
+ * Every pool publishes its own {@code hikaricp.*} metrics tagged with its pool name.
+ */
+@Configuration
+@ConditionalOnExpression("${app.datasource.routing.enabled:false} or ${app.datasource.workload-pools.enabled:false}")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public RoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                               DataSourceProperties dataSourceProperties,
+                                               DataSourceRoutingProperties routingProperties,
+                                               WorkloadPoolProperties workloadPoolProperties,
+                                               MeterRegistry meterRegistry) {
+        Map<Workload, DataSource> workloadPools = new EnumMap<>(Workload.class);
+        if (workloadPoolProperties.isEnabled()) {
+            workloadPoolProperties.getPools().forEach((workload, pool) -> {
+                HikariDataSource dataSource = new HikariDataSource();
+                dataSource.setPoolName(workload.name().toLowerCase());
+                dataSource.setJdbcUrl(primaryDataSource.getJdbcUrl());
+                dataSource.setUsername(primaryDataSource.getUsername());
+                dataSource.setPassword(primaryDataSource.getPassword());
+                dataSource.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+                dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+                dataSource.setMinimumIdle(pool.getMinimumIdle());
+                dataSource.setConnectionTimeout(pool.getConnectionTimeoutMs());
+                dataSource.setMetricRegistry(meterRegistry);
+                workloadPools.put(workload, dataSource);
+            });
+        }
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<DataSourceRoutingProperties.Replica> configured = routingProperties.isEnabled()
+                ? routingProperties.getReplicas() : List.of();
+        for (int i = 0; i < configured.size(); i++) {
+            DataSourceRoutingProperties.Replica replica = configured.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            dataSource.setReadOnly(true);
+            dataSource.setMetricRegistry(meterRegistry);
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+        return new RoutingDataSource(primaryDataSource, workloadPools, replicas, routingProperties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
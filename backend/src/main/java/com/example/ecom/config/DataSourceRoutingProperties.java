@@ -0,0 +1,32 @@
+package com.example.ecom.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+    private List<Replica> replicas = new ArrayList<>();
+    private long maxLagMs = 5000; // Replicas further behind than this are skipped
+    private long lagCheckIntervalMs = 2000;
+    private long readYourWritesMs = 5000; // A user's reads stay on primary this long after their own write
+    // Must return the replay lag in seconds, or NULL when the server is not a standby.
+    // A fully replayed standby reports 0 even if the primary has been idle.
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) END";
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username; // Defaults to the primary credentials
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.ecom.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the connection pool for the annotated service method or class. Only the
+ * outermost call matters: once a transaction holds a connection, nested calls reuse it.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DataSourceWorkload {
+
+    Workload value();
+}
@@ -0,0 +1,36 @@
+package com.example.ecom.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Runs outside the transaction interceptor so the workload is set before a connection is bound
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataSourceWorkloadAspect {
+
+    @Around("@within(com.example.ecom.config.DataSourceWorkload) || @annotation(com.example.ecom.config.DataSourceWorkload)")
+    public Object selectWorkload(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        DataSourceWorkload annotation = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), DataSourceWorkload.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), DataSourceWorkload.class);
+        }
+        if (annotation == null) {
+            return joinPoint.proceed();
+        }
+
+        Workload previous = WorkloadContext.enter(annotation.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+}
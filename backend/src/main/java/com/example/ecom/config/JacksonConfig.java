@@ -0,0 +1,45 @@
+package com.example.ecom.config;
+
+import com.example.ecom.dto.FieldSet;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * JSON stays the default; clients that send {@code Accept: application/cbor} or
+ * {@code application/x-jackson-smile} get the same DTOs in a compact binary encoding.
+ * The binary mappers are built from Boot's builder, so they share its modules,
+ * date handling and the sparse fieldset filter.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // DTOs declare the sparse fieldset filter; without a fields= parameter it lets everything through
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSetFilterDefault() {
+        return builder -> builder.filters(FieldSet.serializeAll());
+    }
+
+    // Generated accessors instead of reflective getter calls for every DTO property
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ecom.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private long syncIntervalMs = 1000;
+    private boolean trustForwardedFor = false;
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+        private String name;
+        private String path;
+        private String method; // Null matches any method
+        private String queryParam; // Only requests carrying this parameter are limited
+        private KeyType key = KeyType.IP;
+        private int capacity = 60;
+        private int refillPerMinute = 60;
+    }
+
+    public enum KeyType {
+        IP,
+        USER // Falls back to the client IP for anonymous requests
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.ecom.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the pool for each new connection. Read-only transactions go to a healthy
+ * replica; everything else goes to the pool of the current {@link Workload}, or the
+ * default primary pool when none is set. Replicas whose replay lag exceeds the
+ * configured bound are skipped, and a user who has just written keeps reading from
+ * the primary for a short window. Must sit behind a {@code LazyConnectionDataSourceProxy}
+ * so the lookup happens after the transaction's read-only flag and workload are set.
+ */
+@Slf4j
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys;
+    private final Map<String, DataSource> replicas;
+    private final Map<Workload, DataSource> workloadPools;
+    private final DataSourceRoutingProperties properties;
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public RoutingDataSource(DataSource primary, Map<Workload, DataSource> workloadPools,
+                             Map<String, DataSource> replicas, DataSourceRoutingProperties properties) {
+        this.replicaKeys = properties.isEnabled() ? List.copyOf(replicas.keySet()) : List.of();
+        this.replicas = replicas;
+        this.workloadPools = workloadPools;
+        this.properties = properties;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.putAll(workloadPools);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        replicaKeys.forEach(key -> healthy.put(key, false)); // Until the first lag check passes
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Object writeTarget = writeTarget();
+        if (replicaKeys.isEmpty() || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return writeTarget;
+        }
+
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null) {
+                recentWriters.put(user, System.currentTimeMillis() + properties.getReadYourWritesMs());
+            }
+            return writeTarget;
+        }
+
+        if (user != null) {
+            Long until = recentWriters.get(user);
+            if (until != null && until > System.currentTimeMillis()) {
+                return writeTarget;
+            }
+        }
+        String replica = pickReplica();
+        return replica != null ? replica : writeTarget;
+    }
+
+    private Object writeTarget() {
+        Workload workload = WorkloadContext.current();
+        return workload != null && workloadPools.containsKey(workload) ? workload : PRIMARY;
+    }
+
+    private String pickReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (healthy.getOrDefault(key, false)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval-ms:2000}")
+    public void checkReplicaLag() {
+        for (String key : replicaKeys) {
+            boolean ok;
+            try (Connection connection = replicas.get(key).getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+                double lagSeconds = rs.next() ? rs.getDouble(1) : 0; // NULL reads as 0
+                ok = lagSeconds * 1000 <= properties.getMaxLagMs();
+                if (!ok) {
+                    log.warn("Replica {} is {} ms behind, routing its reads to primary", key, (long) (lagSeconds * 1000));
+                }
+            } catch (Exception e) {
+                log.warn("Replica {} failed its lag check: {}", key, e.getMessage());
+                ok = false;
+            }
+            healthy.put(key, ok);
+        }
+
+        long now = System.currentTimeMillis();
+        recentWriters.values().removeIf(until -> until <= now);
+    }
+
+    // Invoked as the inferred destroy method; only the default primary pool is a bean itself
+    public void close() throws Exception {
+        List<DataSource> pools = new ArrayList<>(replicas.values());
+        pools.addAll(workloadPools.values());
+        for (DataSource dataSource : pools) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
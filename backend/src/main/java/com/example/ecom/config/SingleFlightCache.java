@@ -0,0 +1,163 @@
+package com.example.ecom.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Wraps a cache so that {@code @Cacheable(sync = true)} loads run once per key:
+ * concurrent misses wait for the single loader and share its result. Values are
+ * stored with a freshness deadline shorter than the store's TTL; past it (or a
+ * little before it, with a probability that grows as the deadline nears and with
+ * the cost of the last load) one caller reloads while the others keep getting the
+ * previous value. A failed reload also falls back to that value.
+ */
+@Slf4j
+public class SingleFlightCache implements Cache {
+
+    private final Cache delegate;
+    private final long freshMs;
+    private final double earlyRefreshBeta;
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightCache(Cache delegate, long freshMs, double earlyRefreshBeta) {
+        this.delegate = delegate;
+        this.freshMs = freshMs;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = read(key);
+        if (!(stored instanceof Stamped stamped)) {
+            if (stored != null) {
+                return (T) stored; // Written without a stamp; served until it expires
+            }
+            return (T) load(key, valueLoader, null);
+        }
+
+        long now = System.currentTimeMillis();
+        if (!needsRefresh(stamped, now) || inFlight.containsKey(key)) {
+            return (T) stamped.value();
+        }
+        return (T) load(key, valueLoader, stamped);
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, Stamped stale) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return stale != null ? stale.value() : await(key, valueLoader, leader);
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            Object value = valueLoader.call();
+            long end = System.currentTimeMillis();
+            if (value != null) {
+                write(key, new Stamped(value, end + freshMs, end - start));
+            }
+            flight.complete(value);
+            return value;
+        } catch (Exception e) {
+            flight.completeExceptionally(e);
+            if (stale != null) {
+                log.warn("Reloading {} in cache {} failed, serving the previous value: {}", key, getName(), e.getMessage());
+                return stale.value();
+            }
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    // XFetch: refresh early when now - cost * beta * ln(random) passes the deadline
+    private boolean needsRefresh(Stamped stamped, long now) {
+        if (now >= stamped.freshUntil()) {
+            return true;
+        }
+        double random = ThreadLocalRandom.current().nextDouble();
+        return now - stamped.loadMillis() * earlyRefreshBeta * Math.log(random) >= stamped.freshUntil();
+    }
+
+    // The store failing is treated as a miss so loads stay single-flight during an outage
+    private Object read(Object key) {
+        try {
+            ValueWrapper wrapper = delegate.get(key);
+            return wrapper != null ? wrapper.get() : null;
+        } catch (RuntimeException e) {
+            log.warn("Cache {} read failed for {}: {}", getName(), key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(Object key, Stamped stamped) {
+        try {
+            delegate.put(key, stamped);
+        } catch (RuntimeException e) {
+            log.warn("Cache {} write failed for {}: {}", getName(), key, e.getMessage());
+        }
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper != null && wrapper.get() instanceof Stamped stamped) {
+            return stamped::value;
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        return wrapper != null ? (T) wrapper.get() : null;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value != null) {
+            delegate.put(key, new Stamped(value, System.currentTimeMillis() + freshMs, 0));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    private record Stamped(Object value, long freshUntil, long loadMillis) implements Serializable {
+    }
+}
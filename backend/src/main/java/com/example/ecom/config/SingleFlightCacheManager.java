@@ -0,0 +1,48 @@
+package com.example.ecom.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out {@link SingleFlightCache} views of the underlying manager's caches.
+ * Each cache is fresh for its configured time, or the default when none is configured.
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Map<String, Long> freshMs;
+    private final long defaultFreshMs;
+    private final double earlyRefreshBeta;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public SingleFlightCacheManager(CacheManager delegate, Map<String, Long> freshMs, long defaultFreshMs,
+                                    double earlyRefreshBeta) {
+        this.delegate = delegate;
+        this.freshMs = freshMs;
+        this.defaultFreshMs = defaultFreshMs;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key ->
+                new SingleFlightCache(target, freshMs.getOrDefault(key, defaultFreshMs), earlyRefreshBeta));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
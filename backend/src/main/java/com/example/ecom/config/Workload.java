@@ -0,0 +1,11 @@
+package com.example.ecom.config;
+
+/**
+ * Connection-pool bulkheads. Code that does not declare a workload uses the
+ * default {@code spring.datasource} pool.
+ */
+public enum Workload {
+    CHECKOUT, // Order creation, payment verification
+    BROWSE,   // Catalog reads
+    ADMIN     // Reporting, exports, bulk jobs
+}
@@ -0,0 +1,24 @@
+package com.example.ecom.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.workload-pools")
+public class WorkloadPoolProperties {
+
+    private boolean enabled = false;
+    private Map<Workload, Pool> pools = new EnumMap<>(Workload.class); // Workloads without an entry use the default pool
+
+    @Data
+    public static class Pool {
+        private int maximumPoolSize = 5;
+        private int minimumIdle = 1;
+        private long connectionTimeoutMs = 5000;
+    }
+}
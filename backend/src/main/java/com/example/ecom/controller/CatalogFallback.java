@@ -0,0 +1,90 @@
+package com.example.ecom.controller;
+
+import com.example.ecom.service.CatalogCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Stale-if-error for catalog reads. Every successful load of a snapshotted URL is
+ * kept as its last known good body. When a load fails on the database, or while
+ * {@link CatalogCircuitBreaker} is open, that body is served instead, marked with
+ * a {@code Warning: 110} header and its age, and without validators so nobody
+ * caches it as current.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogFallback {
+
+    static final String STALE_ATTRIBUTE = CatalogFallback.class.getName() + ".stale";
+
+    private final CatalogCircuitBreaker circuitBreaker;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Value("${app.catalog.degraded.max-snapshots:5000}")
+    private int maxSnapshots;
+
+    public <T> Supplier<Optional<T>> guard(ServletWebRequest request, Supplier<Optional<T>> loader) {
+        return () -> load(request, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> load(ServletWebRequest request, Supplier<Optional<T>> loader) {
+        String key = CatalogResponseCache.key(request.getRequest());
+        if (circuitBreaker.isOpen()) {
+            return Optional.of((T) serveStale(request, key));
+        }
+
+        long start = System.currentTimeMillis();
+        Optional<T> value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            if (!CatalogCircuitBreaker.isDatabaseFailure(e)) {
+                throw e;
+            }
+            circuitBreaker.recordFailure();
+            if (!snapshots.containsKey(key)) {
+                throw e;
+            }
+            return Optional.of((T) serveStale(request, key));
+        }
+        circuitBreaker.recordSuccess(System.currentTimeMillis() - start);
+
+        if (value.isPresent()) {
+            if (snapshots.size() >= maxSnapshots && !snapshots.containsKey(key)) {
+                snapshots.clear();
+            }
+            snapshots.put(key, new Snapshot(value.get(), System.currentTimeMillis()));
+        }
+        return value;
+    }
+
+    private Object serveStale(ServletWebRequest request, String key) {
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Catalog is temporarily unavailable");
+        }
+        long ageSeconds = (System.currentTimeMillis() - snapshot.capturedAt()) / 1000;
+        request.getResponse().setHeader("Warning", "110 - \"Response is Stale\"");
+        request.getResponse().setHeader("X-Catalog-Snapshot-Age", Long.toString(ageSeconds));
+        request.setAttribute(STALE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        return snapshot.value();
+    }
+
+    static boolean isStale(ServletWebRequest request) {
+        return request.getAttribute(STALE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private record Snapshot(Object value, long capturedAt) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.ecom.controller;
+
+import com.example.ecom.dto.FieldSet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ready-to-send bodies for the hottest catalog URLs: the UTF-8 JSON bytes and their
+ * gzip encoding, keyed by path plus normalized query and tagged with the version
+ * stamp they were built from. A hit skips the data cache, DTO mapping, Jackson and
+ * the container's compression and is copied straight to the socket; an entry whose
+ * version no longer matches is rebuilt on the next request.
+ */
+@Component
+@Slf4j
+public class CatalogResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CatalogResponseCache(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.http.response-cache.enabled:true}") boolean enabled,
+                                @Value("${app.http.response-cache.max-entries:2000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("catalog.response.cache", "result", "hit");
+        this.misses = meterRegistry.counter("catalog.response.cache", "result", "miss");
+    }
+
+    /**
+     * Same contract as {@link ConditionalResponses#respond}, but a full response is
+     * written from the byte cache and {@code null} is returned to tell Spring MVC the
+     * response has been handled.
+     */
+    public <T> ResponseEntity<T> respond(ServletWebRequest request, String resource, long lastModified,
+                                         CacheControl cacheControl, Supplier<Optional<T>> body) {
+        // Binary encodings go through the message converters; only JSON is kept as bytes
+        if (!enabled || lastModified <= 0 || !ConditionalResponses.representation(request).equals("json")) {
+            return ConditionalResponses.respond(request, resource, lastModified, cacheControl, body);
+        }
+
+        String etag = ConditionalResponses.etag(request, resource, lastModified);
+        if (request.checkNotModified(etag, lastModified)) {
+            return ConditionalResponses.notModified(etag, lastModified, cacheControl);
+        }
+
+        String key = key(request.getRequest());
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == lastModified) {
+            hits.increment();
+        } else {
+            misses.increment();
+            Optional<T> value = body.get();
+            if (value.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (CatalogFallback.isStale(request)) {
+                return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(value.get());
+            }
+            FieldSet fields = FieldSet.parse(request.getParameter(FieldSetResponseAdvice.PARAMETER));
+            entry = build(value.get(), fields, lastModified);
+            store(key, entry);
+        }
+
+        write(entry, request, etag, cacheControl);
+        return null;
+    }
+
+    private Entry build(Object value, FieldSet fields, long version) {
+        try {
+            byte[] json = objectMapper.writer(fields.filterProvider()).writeValueAsBytes(value);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(json);
+            }
+            return new Entry(version, json, buffer.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize catalog response", e);
+        }
+    }
+
+    private void store(String key, Entry entry) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            // A URL's entry is replaced in place, so overflow means many distinct URLs; start over
+            log.debug("Catalog response cache reached {} entries, clearing", entries.size());
+            entries.clear();
+        }
+        entries.put(key, entry);
+    }
+
+    private void write(Entry entry, ServletWebRequest request, String etag, CacheControl cacheControl) {
+        HttpServletResponse response = request.getResponse();
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = gzip ? entry.gzip() : entry.json();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, entry.version());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            // Already encoded, so the container's compression leaves the body alone
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.length);
+        try {
+            response.getOutputStream().write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write catalog response", e);
+        }
+    }
+
+    // Path plus query parameters in sorted order, so equivalent URLs share an entry
+    static String key(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(parameter.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private record Entry(long version, byte[] json, byte[] gzip) {
+    }
+}
@@ -5,10 +5,15 @@ import com.example.ecom.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -18,26 +23,33 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogFallback catalogFallback;
+
+    @Value("${app.http.cache.category-max-age-seconds:600}")
+    private long maxAgeSeconds;
 
     @GetMapping
     @Operation(summary = "Get all categories", description = "Get list of all available categories")
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<CategoryDto>> getAllCategories(ServletWebRequest request) {
+        return ConditionalResponses.respond(request, "categories", categoryService.lastModified(), cacheControl(),
+                catalogFallback.guard(request, () -> Optional.of(categoryService.getAllCategories())));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get category by ID", description = "Get a single category by its ID")
-    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id) {
-        return categoryService.getCategoryById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id, ServletWebRequest request) {
+        return ConditionalResponses.respond(request, "category-" + id, categoryService.lastModified(), cacheControl(),
+                catalogFallback.guard(request, () -> categoryService.getCategoryById(id)));
     }
 
     @GetMapping("/slug/{slug}")
     @Operation(summary = "Get category by slug", description = "Get a single category by its slug")
-    public ResponseEntity<CategoryDto> getCategoryBySlug(@PathVariable String slug) {
-        return categoryService.getCategoryBySlug(slug)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<CategoryDto> getCategoryBySlug(@PathVariable String slug, ServletWebRequest request) {
+        return ConditionalResponses.respond(request, "category-" + slug, categoryService.lastModified(), cacheControl(),
+                catalogFallback.guard(request, () -> categoryService.getCategoryBySlug(slug)));
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.example.ecom.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET handling for catalog endpoints. Callers pass a version stamp they
+ * can compute without loading the resource, so {@code If-None-Match} and
+ * {@code If-Modified-Since} are answered with a 304 before any query, DTO mapping
+ * or serialization; the body supplier only runs for a full response.
+ */
+final class ConditionalResponses {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> respond(WebRequest request, String resource, long lastModified,
+                                         CacheControl cacheControl, Supplier<Optional<T>> body) {
+        // While the version is not known yet, serve without validators rather than guess
+        String etag = lastModified > 0 ? etag(request, resource, lastModified) : null;
+        if (etag != null && request.checkNotModified(etag, lastModified)) {
+            return notModified(etag, lastModified, cacheControl);
+        }
+
+        Optional<T> value = body.get();
+        if (value.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request instanceof ServletWebRequest servletRequest && CatalogFallback.isStale(servletRequest)) {
+            // A snapshot is never stored, so it cannot stand in for the current version later
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).varyBy(HttpHeaders.ACCEPT).body(value.get());
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT);
+        if (etag != null) {
+            ok.eTag(etag).lastModified(lastModified);
+        }
+        return ok.body(value.get());
+    }
+
+    // JSON, CBOR and Smile bodies of one version differ byte for byte, so they get distinct tags
+    static String etag(WebRequest request, String resource, long lastModified) {
+        String representation = representation(request);
+        return "\"" + resource + "-" + Long.toString(lastModified, 36)
+                + (representation.equals("json") ? "" : "-" + representation) + "\"";
+    }
+
+    // Mirrors converter negotiation: highest quality first, concrete types before
+    // wildcards, and JSON for anything a wildcard or a missing header allows
+    static String representation(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return "json";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                .thenComparing(MediaType::isWildcardType)
+                .thenComparing(MediaType::isWildcardSubtype));
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "json";
+            }
+            if (type.isCompatibleWith(SMILE)) {
+                return "smile";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+        }
+        return "json";
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag, long lastModified, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.ecom.controller;
 
 import com.example.ecom.dto.ApplyCouponRequest;
+import com.example.ecom.dto.BestCouponRequest;
+import com.example.ecom.dto.BulkCouponJobDto;
+import com.example.ecom.dto.BulkCouponRequest;
 import com.example.ecom.dto.CouponValidationResponse;
+import com.example.ecom.service.BulkCouponService;
 import com.example.ecom.service.CouponService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 public class CouponController {
 
     private final CouponService couponService;
+    private final BulkCouponService bulkCouponService;
 
     @PostMapping("/validate")
     @PreAuthorize("isAuthenticated()")
@@ -23,4 +29,29 @@ public class CouponController {
         CouponValidationResponse response = couponService.validateCoupon(request);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/best")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CouponValidationResponse> findBestCoupon(
+            @Valid @RequestBody BestCouponRequest request) {
+        CouponValidationResponse response = couponService.findBestCoupon(request);
+        return ResponseEntity.ok(response);
+    }
+
+    // Admin endpoints
+    @PostMapping("/admin/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkCouponJobDto> generateBulkCoupons(
+            @Valid @RequestBody BulkCouponRequest request) {
+        BulkCouponJobDto job = bulkCouponService.startGeneration(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/admin/bulk/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkCouponJobDto> getBulkCouponJob(@PathVariable String jobId) {
+        return bulkCouponService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.ecom.controller;
+
+import com.example.ecom.dto.FieldSet;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies a {@code fields=} request parameter to the serializer, so DTO properties
+ * that were not asked for are left out of the JSON.
+ */
+@RestControllerAdvice
+public class FieldSetResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    public static final String PARAMETER = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            FieldSet fields = FieldSet.parse(servletRequest.getServletRequest().getParameter(PARAMETER));
+            if (!fields.isAll()) {
+                bodyContainer.setFilters(fields.filterProvider());
+            }
+        }
+    }
+}
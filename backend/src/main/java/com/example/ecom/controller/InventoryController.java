@@ -0,0 +1,33 @@
+package com.example.ecom.controller;
+
+import com.example.ecom.dto.StockFeedResult;
+import com.example.ecom.service.FeedFormat;
+import com.example.ecom.service.InventoryFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+@Tag(name = "Inventory", description = "Warehouse stock feed endpoints")
+public class InventoryController {
+
+    private final InventoryFeedService inventoryFeedService;
+
+    @PostMapping(value = "/feed", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Apply stock feed", description = "Apply a full sku/quantity snapshot; only changed counts are written (Admin only)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockFeedResult> applyFeed(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        StockFeedResult result = inventoryFeedService.applyFeed(body, FeedFormat.fromContentType(contentType));
+        return ResponseEntity.ok(result);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.ecom.controller;
 
 import com.example.ecom.dto.CreateOrderRequest;
+import com.example.ecom.dto.FieldSet;
 import com.example.ecom.dto.OrderDto;
 import com.example.ecom.entity.Order;
 import com.example.ecom.service.OrderService;
@@ -37,9 +38,10 @@ public class OrderController {
     public ResponseEntity<Page<OrderDto>> getMyOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<OrderDto> orders = orderService.getMyOrders(authentication.getName(), pageable);
+        Page<OrderDto> orders = orderService.getMyOrders(authentication.getName(), pageable, FieldSet.parse(fields));
         return ResponseEntity.ok(orders);
     }
 
@@ -47,8 +49,9 @@ public class OrderController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<OrderDto> getOrderById(
             @PathVariable Long id,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
-        OrderDto order = orderService.getOrderById(id, authentication.getName());
+        OrderDto order = orderService.getOrderById(id, authentication.getName(), FieldSet.parse(fields));
         return ResponseEntity.ok(order);
     }
 
@@ -58,15 +61,16 @@ public class OrderController {
     public ResponseEntity<Page<OrderDto>> getAllOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fields) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         
         Page<OrderDto> orders;
         if (status != null && !status.isEmpty()) {
             Order.OrderStatus orderStatus = Order.OrderStatus.valueOf(status.toUpperCase());
-            orders = orderService.getOrdersByStatus(orderStatus, pageable);
+            orders = orderService.getOrdersByStatus(orderStatus, pageable, FieldSet.parse(fields));
         } else {
-            orders = orderService.getAllOrders(pageable);
+            orders = orderService.getAllOrders(pageable, FieldSet.parse(fields));
         }
         
         return ResponseEntity.ok(orders);
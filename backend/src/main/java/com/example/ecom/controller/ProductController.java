@@ -1,20 +1,36 @@
 package com.example.ecom.controller;
 
 import com.example.ecom.dto.CreateProductRequest;
+import com.example.ecom.dto.FieldSet;
 import com.example.ecom.dto.ProductDto;
+import com.example.ecom.dto.ProductImportJobDto;
+import com.example.ecom.service.CategoryService;
+import com.example.ecom.service.FeedFormat;
+import com.example.ecom.service.ProductImportService;
 import com.example.ecom.service.ProductService;
+import com.example.ecom.service.ProductStockView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
@@ -23,6 +39,23 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductStockView productStockView;
+    private final CategoryService categoryService;
+    private final CatalogResponseCache responseCache;
+    private final CatalogFallback catalogFallback;
+
+    @Value("${app.http.cache.product-list-max-age-seconds:30}")
+    private long listMaxAgeSeconds;
+
+    @Value("${app.http.cache.product-max-age-seconds:60}")
+    private long productMaxAgeSeconds;
+
+    @Value("${app.http.response-cache.list-pages:3}")
+    private int responseCachePages;
+
+    @Value("${app.catalog.degraded.snapshot-pages:5}")
+    private int snapshotPages;
 
     @GetMapping
     @Operation(summary = "Get all products", description = "Get paginated list of active products with optional filtering")
@@ -34,7 +67,9 @@ public class ProductController {
             @Parameter(description = "Search query") @RequestParam(required = false) String q,
             @Parameter(description = "Category ID filter") @RequestParam(required = false) Long categoryId,
             @Parameter(description = "Minimum price filter") @RequestParam(required = false) Integer minPrice,
-            @Parameter(description = "Maximum price filter") @RequestParam(required = false) Integer maxPrice) {
+            @Parameter(description = "Maximum price filter") @RequestParam(required = false) Integer maxPrice,
+            @Parameter(description = "Comma-separated fields to return, e.g. name,price,category.name") @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
         
         // Map 'price' to actual entity field 'priceCents'
         String actualSortField = sortBy.equals("price") ? "priceCents" : sortBy;
@@ -42,9 +77,28 @@ public class ProductController {
         Sort sort = Sort.by(sortDir.equals("desc") ? Sort.Direction.DESC : Sort.Direction.ASC, actualSortField);
         Pageable pageable = PageRequest.of(page, size, sort);
         
+        // Any product or category change moves the version of every page
+        long version = catalogVersion(productStockView.catalogLastModified());
+        Supplier<Optional<Page<ProductDto>>> products =
+                () -> Optional.of(listProducts(FieldSet.parse(fields), q, categoryId, minPrice, maxPrice, pageable));
+        if (page < snapshotPages) {
+            // Top pages keep a last known good copy for when the database is down
+            products = catalogFallback.guard(request, products);
+        }
+        // Only the first pages are hot enough to keep as ready-made bytes
+        return page < responseCachePages
+                ? responseCache.respond(request, "products", version, listCacheControl(), products)
+                : ConditionalResponses.respond(request, "products", version, listCacheControl(), products);
+    }
+
+    private Page<ProductDto> listProducts(FieldSet fields, String q, Long categoryId, Integer minPrice, Integer maxPrice,
+                                          Pageable pageable) {
         Page<ProductDto> products;
-        
-        if (categoryId != null || minPrice != null || maxPrice != null) {
+
+        if (!fields.isAll()) {
+            // Only the requested columns are selected; serialization trims the rest
+            products = productService.findProducts(fields, categoryId, minPrice, maxPrice, q, pageable);
+        } else if (categoryId != null || minPrice != null || maxPrice != null) {
             // Use filter if any filter parameter is provided
             products = productService.filterProducts(categoryId, minPrice, maxPrice, q, pageable);
         } else if (q != null && !q.trim().isEmpty()) {
@@ -54,24 +108,25 @@ public class ProductController {
             // Default: get all products
             products = productService.getAllProducts(pageable);
         }
-        
-        return ResponseEntity.ok(products);
+
+        // Cached pages carry static data only; current stock is merged in per response
+        return productStockView.withStock(products);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Get a single product by its ID")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
-        return productService.getProductById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, ServletWebRequest request) {
+        long version = catalogVersion(productStockView.lastModified(id));
+        return responseCache.respond(request, "product-" + id, version, productCacheControl(),
+                catalogFallback.guard(request, () -> productService.getProductById(id).map(productStockView::withStock)));
     }
 
     @GetMapping("/slug/{slug}")
     @Operation(summary = "Get product by slug", description = "Get a single product by its slug")
-    public ResponseEntity<ProductDto> getProductBySlug(@PathVariable String slug) {
-        return productService.getProductBySlug(slug)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProductDto> getProductBySlug(@PathVariable String slug, ServletWebRequest request) {
+        long version = catalogVersion(productStockView.lastModified(slug));
+        return responseCache.respond(request, "product-" + slug, version, productCacheControl(),
+                catalogFallback.guard(request, () -> productService.getProductBySlug(slug).map(productStockView::withStock)));
     }
 
     @PostMapping
@@ -98,4 +153,37 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Import products", description = "Stream a CSV or NDJSON catalog into a background import job (Admin only)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportJobDto> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        ProductImportJobDto job = productImportService.startImport(body,
+                FeedFormat.fromContentType(contentType));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get import job", description = "Get progress and row errors of a product import (Admin only)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportJobDto> getImportJob(@PathVariable String jobId) {
+        return productImportService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Products embed their category, so a category change is also a product change
+    private long catalogVersion(long productsLastModified) {
+        return productsLastModified > 0 ? Math.max(productsLastModified, categoryService.lastModified()) : 0;
+    }
+
+    private CacheControl listCacheControl() {
+        return CacheControl.maxAge(listMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    private CacheControl productCacheControl() {
+        return CacheControl.maxAge(productMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+}
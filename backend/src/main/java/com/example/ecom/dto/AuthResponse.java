@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private UserDto user;
     private Long expiresIn;
@@ -23,4 +24,14 @@ public class AuthResponse {
                 .expiresIn(expiresIn)
                 .build();
     }
+
+    public static AuthResponse of(String token, String refreshToken, UserDto user, Long expiresIn) {
+        return AuthResponse.builder()
+                .token(token)
+                .refreshToken(refreshToken)
+                .type("Bearer")
+                .user(user)
+                .expiresIn(expiresIn)
+                .build();
+    }
 }
\ No newline at end of file
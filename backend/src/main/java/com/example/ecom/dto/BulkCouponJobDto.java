@@ -0,0 +1,23 @@
+package com.example.ecom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCouponJobDto {
+    private String jobId;
+    private String status;
+    private Integer requested;
+    private Long generated;
+    private Long inserted;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
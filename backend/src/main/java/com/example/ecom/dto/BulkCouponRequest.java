@@ -0,0 +1,49 @@
+package com.example.ecom.dto;
+
+import com.example.ecom.entity.Coupon;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCouponRequest {
+
+    @Pattern(regexp = "^[A-Za-z0-9]{0,8}$", message = "Prefix must be up to 8 letters or digits")
+    private String prefix = "";
+
+    @NotNull(message = "Code count is required")
+    @Min(value = 1, message = "Code count must be at least 1")
+    @Max(value = 5000000, message = "Code count cannot exceed 5,000,000")
+    private Integer count;
+
+    @Min(value = 6, message = "Code length must be at least 6")
+    @Max(value = 12, message = "Code length cannot exceed 12")
+    private Integer codeLength = 10;
+
+    @NotBlank(message = "Description is required")
+    private String description;
+
+    @NotNull(message = "Discount type is required")
+    private Coupon.DiscountType discountType;
+
+    @NotNull(message = "Discount value is required")
+    @Min(value = 1, message = "Discount value must be positive")
+    private Integer discountValue;
+
+    @NotNull(message = "Minimum order amount is required")
+    @Min(value = 0, message = "Minimum order amount cannot be negative")
+    private Integer minOrderCents;
+
+    private Integer maxDiscountCents;
+
+    @NotNull(message = "Valid from is required")
+    private LocalDateTime validFrom;
+
+    @NotNull(message = "Valid to is required")
+    private LocalDateTime validTo;
+}
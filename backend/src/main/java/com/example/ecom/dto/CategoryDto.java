@@ -1,6 +1,7 @@
 package com.example.ecom.dto;
 
 import com.example.ecom.entity.Category;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,7 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Data
+@JsonFilter(FieldSet.FILTER_ID)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,4 +30,7 @@ public class CreateProductRequest {
     private Long categoryId;
     
     private String imageUrl;
+
+    @Size(max = 64, message = "SKU cannot exceed 64 characters")
+    private String sku;
 }
\ No newline at end of file
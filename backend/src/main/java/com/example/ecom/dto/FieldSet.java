@@ -0,0 +1,122 @@
+package com.example.ecom.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset from a {@code fields=} parameter, e.g. {@code fields=name,price,category.name}.
+ * Paths are relative to the returned DTO, dots reach into nested DTOs and list
+ * elements, and {@code id} is always included. DTOs carrying
+ * {@code @JsonFilter(FieldSet.FILTER_ID)} are trimmed by {@link #filterProvider()};
+ * loaders use {@link #includes} and {@link #child} to skip columns and associations
+ * nobody asked for.
+ */
+public final class FieldSet {
+
+    public static final String FILTER_ID = "fieldSet";
+    public static final FieldSet ALL = new FieldSet(null);
+
+    private static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .addFilter(FILTER_ID, SimpleBeanPropertyFilter.serializeAll());
+
+    private final Set<String> paths; // Null means every field
+
+    private FieldSet(Set<String> paths) {
+        this.paths = paths;
+    }
+
+    public static FieldSet parse(String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return ALL;
+        }
+        Set<String> paths = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        return paths.isEmpty() ? ALL : new FieldSet(paths);
+    }
+
+    public boolean isAll() {
+        return paths == null;
+    }
+
+    // True for a requested path, anything below one, and the parents of nested requests
+    public boolean includes(String path) {
+        if (paths == null || path.equals("id") || path.endsWith(".id")) {
+            return true;
+        }
+        for (String requested : paths) {
+            if (requested.equals(path) || path.startsWith(requested + ".") || requested.startsWith(path + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Fields requested below the named property, relative to it
+    public FieldSet child(String name) {
+        if (paths == null || paths.contains(name)) {
+            return ALL;
+        }
+        String prefix = name + ".";
+        Set<String> nested = paths.stream()
+                .filter(path -> path.startsWith(prefix))
+                .map(path -> path.substring(prefix.length()))
+                .collect(Collectors.toUnmodifiableSet());
+        return new FieldSet(nested);
+    }
+
+    public FilterProvider filterProvider() {
+        return paths == null ? SERIALIZE_ALL : new SimpleFilterProvider().addFilter(FILTER_ID, new PathFilter(this));
+    }
+
+    // Default for mappers that serialize filtered DTOs without a request in scope
+    public static FilterProvider serializeAll() {
+        return SERIALIZE_ALL;
+    }
+
+    private static final class PathFilter extends SimpleBeanPropertyFilter {
+        private final FieldSet fields;
+
+        private PathFilter(FieldSet fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (fields.includes(path(gen.getOutputContext(), writer.getName()))) {
+                writer.serializeAsField(pojo, gen, provider);
+            } else if (!gen.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, gen, provider);
+            }
+        }
+
+        // Property names from the outermost filtered DTO down to this one; wrappers such as Page are skipped
+        private static String path(JsonStreamContext context, String name) {
+            StringBuilder path = new StringBuilder(name);
+            for (JsonStreamContext parent = context.getParent(); parent != null; parent = parent.getParent()) {
+                if (parent.inArray()) {
+                    continue;
+                }
+                Object value = parent.getCurrentValue();
+                if (!parent.inObject() || value == null || !value.getClass().isAnnotationPresent(JsonFilter.class)) {
+                    break;
+                }
+                path.insert(0, parent.getCurrentName() + ".");
+            }
+            return path.toString();
+        }
+    }
+}
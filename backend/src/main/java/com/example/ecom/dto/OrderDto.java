@@ -1,6 +1,7 @@
 package com.example.ecom.dto;
 
 import com.example.ecom.entity.Order;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Data
+@JsonFilter(FieldSet.FILTER_ID)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +29,12 @@ public class OrderDto implements Serializable {
     private UserDto user;
 
     public static OrderDto from(Order order) {
+        return from(order, FieldSet.ALL);
+    }
+
+    // Lazy associations that were not requested are never touched, so they are never loaded
+    public static OrderDto from(Order order, FieldSet fields) {
+        FieldSet itemFields = fields.child("items");
         return OrderDto.builder()
                 .id(order.getId())
                 .userId(order.getUser().getId())
@@ -35,11 +43,11 @@ public class OrderDto implements Serializable {
                 .shippingAddress(order.getShippingAddressJson())
                 .paymentIntentId(order.getPaymentIntentId())
                 .createdAt(order.getCreatedAt())
-                .items(order.getOrderItems() != null ? 
+                .items(fields.includes("items") && order.getOrderItems() != null ?
                        order.getOrderItems().stream()
-                           .map(OrderItemDto::from)
+                           .map(item -> OrderItemDto.from(item, itemFields))
                            .collect(Collectors.toList()) : null)
-                .user(order.getUser() != null ? UserDto.from(order.getUser()) : null)
+                .user(fields.includes("user") && order.getUser() != null ? UserDto.from(order.getUser()) : null)
                 .build();
     }
 }
\ No newline at end of file
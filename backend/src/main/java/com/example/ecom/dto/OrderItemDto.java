@@ -1,6 +1,7 @@
 package com.example.ecom.dto;
 
 import com.example.ecom.entity.OrderItem;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import java.io.Serializable;
 
 @Data
+@JsonFilter(FieldSet.FILTER_ID)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,6 +24,10 @@ public class OrderItemDto implements Serializable {
     private ProductDto product;
 
     public static OrderItemDto from(OrderItem orderItem) {
+        return from(orderItem, FieldSet.ALL);
+    }
+
+    public static OrderItemDto from(OrderItem orderItem, FieldSet fields) {
         return OrderItemDto.builder()
                 .id(orderItem.getId())
                 .orderId(orderItem.getOrder().getId())
@@ -29,7 +35,7 @@ public class OrderItemDto implements Serializable {
                 .price(orderItem.getPriceInDollars())
                 .quantity(orderItem.getQuantity())
                 .subtotal(orderItem.getSubtotalInDollars())
-                .product(orderItem.getProduct() != null ? ProductDto.from(orderItem.getProduct()) : null)
+                .product(fields.includes("product") && orderItem.getProduct() != null ? ProductDto.from(orderItem.getProduct()) : null)
                 .build();
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.ecom.dto;
 
 import com.example.ecom.entity.Product;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,13 +11,15 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@JsonFilter(FieldSet.FILTER_ID)
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductDto implements Serializable {
     private Long id;
     private String name;
     private String slug;
+    private String sku;
     private String description;
     private Double price;
     private Integer inventoryCount;
@@ -30,6 +33,7 @@ public class ProductDto implements Serializable {
                 .id(product.getId())
                 .name(product.getName())
                 .slug(product.getSlug())
+                .sku(product.getSku())
                 .description(product.getDescription())
                 .price(product.getPriceInDollars())
                 .inventoryCount(product.getInventoryCount())
@@ -0,0 +1,34 @@
+package com.example.ecom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportJobDto {
+    private String jobId;
+    private String status;
+    private String format;
+    private Long rowsRead;
+    private Long imported;
+    private Long failed;
+    private List<RowError> rowErrors; // Capped; failed holds the full count
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
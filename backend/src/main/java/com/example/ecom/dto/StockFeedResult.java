@@ -0,0 +1,22 @@
+package com.example.ecom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockFeedResult {
+    private long received;
+    private long unchanged; // Same count as last applied; never sent to the database
+    private long submitted;
+    private long updated;   // Rows whose count actually changed
+    private long rejected;
+    private List<String> errors; // First few rejected rows
+    private long durationMs;
+}
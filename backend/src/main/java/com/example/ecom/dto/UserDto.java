@@ -1,6 +1,7 @@
 package com.example.ecom.dto;
 
 import com.example.ecom.entity.User;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@JsonFilter(FieldSet.FILTER_ID)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
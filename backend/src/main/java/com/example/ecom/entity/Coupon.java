@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class Coupon {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coupons_seq")
+    @SequenceGenerator(name = "coupons_seq", sequenceName = "coupons_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -56,6 +57,10 @@ public class Coupon {
     @Column(nullable = false)
     private Boolean isActive = true;
 
+    @Column
+    @Builder.Default
+    private Boolean isPublic = true; // Null (rows older than the column) counts as public; bulk single-use codes are private
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -15,7 +15,8 @@ import java.util.List;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -24,6 +25,9 @@ public class Product {
     @Column(nullable = false, unique = true)
     private String slug;
 
+    @Column(unique = true, length = 64)
+    private String sku; // Supplier stock-keeping unit, used to match stock feeds
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -9,9 +9,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +21,8 @@ import java.util.List;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -44,6 +47,22 @@ public class User implements UserDetails {
     @Column(name = "is_enabled")
     private Boolean isEnabled = true;
 
+    // Role and password hash as last read from or written to the database, so
+    // UserCacheListener can tell when outstanding tokens carry stale credentials
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Role persistedRole;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String persistedPassword;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -55,6 +74,21 @@ public class User implements UserDetails {
         updatedAt = LocalDateTime.now();
     }
 
+    void markPersisted() {
+        persistedRole = role;
+        persistedPassword = password;
+    }
+
+    // The same secret re-encoded (for example at a new BCrypt strength) is not a credential change
+    public void rehashPassword(String encodedPassword) {
+        password = encodedPassword;
+        persistedPassword = encodedPassword;
+    }
+
+    boolean credentialsChanged() {
+        return role != persistedRole || !Objects.equals(password, persistedPassword);
+    }
+
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
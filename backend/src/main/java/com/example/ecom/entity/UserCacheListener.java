@@ -0,0 +1,43 @@
+package com.example.ecom.entity;
+
+import com.example.ecom.security.UserCache;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// Keeps the user cache consistent with account changes; looked up lazily to avoid a cycle with the EntityManagerFactory
+@Component
+public class UserCacheListener {
+
+    private final ObjectProvider<UserCache> userCache;
+
+    public UserCacheListener(ObjectProvider<UserCache> userCache) {
+        this.userCache = userCache;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void onLoad(User user) {
+        user.markPersisted();
+    }
+
+    // Tokens carry the role claim and are trusted without loading the user, so a
+    // demotion or password change has to revoke them rather than wait for expiry
+    @PostUpdate
+    public void onUpdate(User user) {
+        if (!user.isEnabled() || user.credentialsChanged()) {
+            userCache.getObject().revokeTokens(user.getId());
+        } else {
+            userCache.getObject().invalidate(user.getId());
+        }
+        user.markPersisted();
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        userCache.getObject().revokeTokens(user.getId());
+    }
+}
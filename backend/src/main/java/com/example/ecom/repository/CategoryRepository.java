@@ -2,8 +2,10 @@ package com.example.ecom.repository;
 
 import com.example.ecom.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +16,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsBySlug(String slug);
     
     boolean existsByName(String name);
+
+    @Query("SELECT MAX(c.updatedAt) FROM Category c")
+    Optional<LocalDateTime> findLastUpdatedAt();
 }
\ No newline at end of file
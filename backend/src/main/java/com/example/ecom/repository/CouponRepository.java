@@ -2,12 +2,38 @@ package com.example.ecom.repository;
 
 import com.example.ecom.entity.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
     Optional<Coupon> findByCodeAndIsActive(String code, Boolean isActive);
     Optional<Coupon> findByCode(String code);
+
+    @Query("SELECT c FROM Coupon c WHERE c.isActive = true AND (c.isPublic IS NULL OR c.isPublic = true) AND " +
+           "c.validTo >= :now AND (c.usageLimit IS NULL OR c.usedCount < c.usageLimit)")
+    List<Coupon> findRedeemablePublicCoupons(@Param("now") LocalDateTime now);
+
+    // Reserve-if-below-limit in a single statement; returns 0 when the coupon is exhausted or not redeemable
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount + 1 WHERE c.id = :id AND c.isActive = true AND " +
+           "(c.usageLimit IS NULL OR c.usedCount < c.usageLimit) AND " +
+           ":now BETWEEN c.validFrom AND c.validTo")
+    int reserveUsage(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount - 1 WHERE c.id = :id AND c.usedCount > 0")
+    int releaseUsage(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount + :delta WHERE c.id = :id")
+    int addUsage(@Param("id") Long id, @Param("delta") int delta);
 }
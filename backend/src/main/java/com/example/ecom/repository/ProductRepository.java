@@ -8,16 +8,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     
     Optional<Product> findBySlug(String slug);
     
     Page<Product> findByCategory_Id(Long categoryId, Pageable pageable);
     
     Page<Product> findByIsActiveTrue(Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id IN :ids AND p.isActive = true")
+    List<Product> findActiveWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.slug IN :slugs AND p.isActive = true")
+    List<Product> findActiveWithCategoryBySlugIn(@Param("slugs") Collection<String> slugs);
     
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -0,0 +1,16 @@
+package com.example.ecom.repository;
+
+import com.example.ecom.dto.FieldSet;
+import com.example.ecom.dto.ProductDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Active products matching the optional filters, selecting only the columns behind
+     * the requested fields; the category is joined only when one of its fields is wanted.
+     */
+    Page<ProductDto> findActiveProjected(FieldSet fields, Long categoryId, Integer minPriceCents,
+                                         Integer maxPriceCents, String query, Pageable pageable);
+}
@@ -0,0 +1,156 @@
+package com.example.ecom.repository;
+
+import com.example.ecom.dto.CategoryDto;
+import com.example.ecom.dto.FieldSet;
+import com.example.ecom.dto.ProductDto;
+import com.example.ecom.entity.Category;
+import com.example.ecom.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // DTO field -> entity attribute
+    private static final Map<String, String> PRODUCT_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, String> CATEGORY_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        PRODUCT_COLUMNS.put("name", "name");
+        PRODUCT_COLUMNS.put("slug", "slug");
+        PRODUCT_COLUMNS.put("sku", "sku");
+        PRODUCT_COLUMNS.put("description", "description");
+        PRODUCT_COLUMNS.put("price", "priceCents");
+        PRODUCT_COLUMNS.put("inventoryCount", "inventoryCount");
+        PRODUCT_COLUMNS.put("imageUrl", "imageUrl");
+        PRODUCT_COLUMNS.put("isActive", "isActive");
+        PRODUCT_COLUMNS.put("createdAt", "createdAt");
+        CATEGORY_COLUMNS.put("name", "name");
+        CATEGORY_COLUMNS.put("slug", "slug");
+        CATEGORY_COLUMNS.put("description", "description");
+        CATEGORY_COLUMNS.put("imageUrl", "imageUrl");
+        CATEGORY_COLUMNS.put("createdAt", "createdAt");
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductDto> findActiveProjected(FieldSet fields, Long categoryId, Integer minPriceCents,
+                                                Integer maxPriceCents, String query, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> select = cb.createTupleQuery();
+        Root<Product> product = select.from(Product.class);
+
+        List<Selection<?>> columns = new ArrayList<>();
+        columns.add(product.get("id").alias("id"));
+        PRODUCT_COLUMNS.forEach((field, attribute) -> {
+            if (fields.includes(field)) {
+                columns.add(product.get(attribute).alias(field));
+            }
+        });
+        FieldSet categoryFields = fields.includes("category") ? fields.child("category") : null;
+        if (categoryFields != null) {
+            Join<Product, Category> category = product.join("category", JoinType.LEFT);
+            columns.add(category.get("id").alias("category_id"));
+            CATEGORY_COLUMNS.forEach((field, attribute) -> {
+                if (categoryFields.includes(field)) {
+                    columns.add(category.get(attribute).alias("category_" + field));
+                }
+            });
+        }
+
+        select.multiselect(columns)
+                .where(filters(cb, product, categoryId, minPriceCents, maxPriceCents, query))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+        TypedQuery<Tuple> page = entityManager.createQuery(select);
+        if (pageable.isPaged()) {
+            page.setFirstResult((int) pageable.getOffset());
+            page.setMaxResults(pageable.getPageSize());
+        }
+        List<ProductDto> content = page.getResultList().stream()
+                .map(tuple -> toDto(tuple, categoryFields))
+                .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            Root<Product> counted = count.from(Product.class);
+            count.select(cb.count(counted))
+                    .where(filters(cb, counted, categoryId, minPriceCents, maxPriceCents, query));
+            return entityManager.createQuery(count).getSingleResult();
+        });
+    }
+
+    // Same conditions as ProductRepository.findByFilters; an empty filter set lists all active products
+    private static Predicate[] filters(CriteriaBuilder cb, Root<Product> product, Long categoryId,
+                                       Integer minPriceCents, Integer maxPriceCents, String query) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isTrue(product.get("isActive")));
+        if (categoryId != null) {
+            predicates.add(cb.equal(product.get("category").get("id"), categoryId));
+        }
+        if (minPriceCents != null) {
+            predicates.add(cb.ge(product.get("priceCents"), minPriceCents));
+        }
+        if (maxPriceCents != null) {
+            predicates.add(cb.le(product.get("priceCents"), maxPriceCents));
+        }
+        if (StringUtils.hasText(query)) {
+            String pattern = "%" + query.toLowerCase() + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(product.get("name")), pattern),
+                    cb.like(cb.lower(product.get("description")), pattern)));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static ProductDto toDto(Tuple tuple, FieldSet categoryFields) {
+        ProductDto.ProductDtoBuilder dto = ProductDto.builder().id(tuple.get("id", Long.class));
+        for (TupleElement<?> element : tuple.getElements()) {
+            Object value = tuple.get(element);
+            switch (element.getAlias()) {
+                case "name" -> dto.name((String) value);
+                case "slug" -> dto.slug((String) value);
+                case "sku" -> dto.sku((String) value);
+                case "description" -> dto.description((String) value);
+                case "price" -> dto.price(value != null ? (Integer) value / 100.0 : null);
+                case "inventoryCount" -> dto.inventoryCount((Integer) value);
+                case "imageUrl" -> dto.imageUrl((String) value);
+                case "isActive" -> dto.isActive((Boolean) value);
+                case "createdAt" -> dto.createdAt((LocalDateTime) value);
+                default -> {
+                }
+            }
+        }
+        Long categoryId = categoryFields != null ? tuple.get("category_id", Long.class) : null;
+        if (categoryId != null) {
+            dto.category(CategoryDto.builder()
+                    .id(categoryId)
+                    .name(categoryValue(tuple, categoryFields, "name", String.class))
+                    .slug(categoryValue(tuple, categoryFields, "slug", String.class))
+                    .description(categoryValue(tuple, categoryFields, "description", String.class))
+                    .imageUrl(categoryValue(tuple, categoryFields, "imageUrl", String.class))
+                    .createdAt(categoryValue(tuple, categoryFields, "createdAt", LocalDateTime.class))
+                    .build());
+        }
+        return dto.build();
+    }
+
+    private static <T> T categoryValue(Tuple tuple, FieldSet categoryFields, String field, Class<T> type) {
+        return categoryFields.includes(field) ? tuple.get("category_" + field, type) : null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.ecom.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD limit on concurrent in-flight requests. Each sampling window compares the
+ * average latency with a slowly moving no-load baseline: when latency inflates
+ * beyond the tolerance, or a request failed in a way that signals overload (503/504,
+ * pool or query timeouts), the limit is cut multiplicatively; when the window used the limit without inflating, it grows by one.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final long windowNanos;
+    private final int minWindowSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicBoolean windowDropped = new AtomicBoolean();
+    private final LongAdder windowLatencyNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile int limit;
+    private volatile long windowEnd;
+    private double baselineNanos = Double.NaN;
+
+    public AdaptiveConcurrencyLimiter(@Value("${app.concurrency-limit.initial-limit:40}") int initialLimit,
+                                      @Value("${app.concurrency-limit.min-limit:8}") int minLimit,
+                                      @Value("${app.concurrency-limit.max-limit:200}") int maxLimit,
+                                      @Value("${app.concurrency-limit.latency-tolerance:2.0}") double tolerance,
+                                      @Value("${app.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${app.concurrency-limit.window-ms:250}") long windowMs,
+                                      @Value("${app.concurrency-limit.min-window-samples:10}") int minWindowSamples,
+                                      MeterRegistry meterRegistry) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.minWindowSamples = minWindowSamples;
+        this.windowEnd = System.nanoTime() + windowNanos;
+
+        meterRegistry.gauge("http.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("http.concurrency.in-flight", inFlight);
+    }
+
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean overloaded) {
+        inFlight.decrementAndGet();
+        windowLatencyNanos.add(latencyNanos);
+        windowSamples.increment();
+        if (overloaded) {
+            windowDropped.set(true);
+        }
+
+        long now = System.nanoTime();
+        if (now - windowEnd >= 0 && updateLock.tryLock()) {
+            try {
+                if (now - windowEnd >= 0 && windowSamples.sum() >= minWindowSamples) {
+                    updateLimit();
+                    windowEnd = now + windowNanos;
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private void updateLimit() {
+        double average = (double) windowLatencyNanos.sumThenReset() / windowSamples.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(0);
+        boolean dropped = windowDropped.getAndSet(false);
+
+        // The baseline follows drops immediately and rises only slowly, so it approximates no-load latency
+        baselineNanos = Double.isNaN(baselineNanos) || average < baselineNanos
+                ? average
+                : baselineNanos + (average - baselineNanos) * 0.01;
+
+        int previous = limit;
+        if (dropped || average > baselineNanos * tolerance) {
+            limit = Math.max(minLimit, (int) (previous * backoffRatio));
+        } else if (maxInFlight * 2 >= previous) {
+            limit = Math.min(maxLimit, previous + 1);
+        }
+
+        if (limit != previous) {
+            log.debug("Concurrency limit {} -> {} (avg {} ms, baseline {} ms)", previous, limit,
+                    average / 1_000_000, baselineNanos / 1_000_000);
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package com.example.ecom.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,12 +19,26 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtProvider jwtProvider;
     private final UserDetailsService userDetailsService;
+    private final UserCache userCache;
+    private final TokenRevocationList revocationList;
+    private final boolean statelessJwt;
+
+    public JwtAuthenticationFilter(JwtProvider jwtProvider,
+                                   UserDetailsService userDetailsService,
+                                   UserCache userCache,
+                                   TokenRevocationList revocationList,
+                                   @Value("${app.security.stateless-jwt:true}") boolean statelessJwt) {
+        this.jwtProvider = jwtProvider;
+        this.userDetailsService = userDetailsService;
+        this.userCache = userCache;
+        this.revocationList = revocationList;
+        this.statelessJwt = statelessJwt;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,9 +47,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && jwtProvider.validateToken(jwt)) {
-                String username = jwtProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = StringUtils.hasText(jwt) ? jwtProvider.parseToken(jwt) : null;
+
+            if (claims != null && !revocationList.isRevoked(claims.getId())) {
+                UserDetails userDetails = resolveUser(claims);
                 
                 if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication = 
@@ -51,6 +67,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Builds the principal from the token alone when it carries ID and role claims
+    private UserDetails resolveUser(Claims claims) {
+        Long userId = claims.get(JwtProvider.USER_ID_CLAIM, Long.class);
+        String role = claims.get(JwtProvider.ROLE_CLAIM, String.class);
+
+        if (statelessJwt && userId != null && role != null) {
+            if (userCache.isRevoked(userId, claims.getIssuedAt())) {
+                return null;
+            }
+            return new JwtUserPrincipal(userId, claims.getSubject(), role);
+        }
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,7 +1,11 @@
 package com.example.ecom.security;
 
+import com.example.ecom.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -9,27 +13,81 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
 public class JwtProvider {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     private final SecretKey secretKey;
     private final int jwtExpirationMs;
+    // Immutable and thread-safe, so one instance serves every request
+    private final JwtParser jwtParser;
+    private final int verifiedCacheSize;
+    private final Map<ByteBuffer, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Timer verificationTimer;
 
     public JwtProvider(@Value("${jwt.secret}") String jwtSecret,
-                      @Value("${jwt.expiration-ms}") int jwtExpirationMs) {
+                      @Value("${jwt.expiration-ms}") int jwtExpirationMs,
+                      @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize,
+                      MeterRegistry meterRegistry) {
         this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
         this.jwtExpirationMs = jwtExpirationMs;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
+        this.verifiedCacheSize = verifiedCacheSize;
+        this.cacheHits = meterRegistry.counter("jwt.verified.cache", "result", "hit");
+        this.cacheMisses = meterRegistry.counter("jwt.verified.cache", "result", "miss");
+        this.verificationTimer = meterRegistry.timer("jwt.verification");
     }
 
     public String generateToken(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof User user) {
+            return generateToken(user);
+        }
+
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationMs);
 
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date())
+                .setExpiration(expiryDate)
+                .signWith(secretKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    // Carries the user ID and role as signed claims so requests can be authenticated without a lookup
+    public String generateToken(User user) {
+        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationMs);
+
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
                 .signWith(secretKey, SignatureAlgorithm.HS512)
@@ -41,6 +99,7 @@ public class JwtProvider {
 
         return Jwts.builder()
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
                 .signWith(secretKey, SignatureAlgorithm.HS512)
@@ -48,22 +107,47 @@ public class JwtProvider {
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+        Claims claims = parseToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateToken(String authToken) {
+        return parseToken(authToken) != null;
+    }
+
+    /**
+     * Verifies the signature and returns the claims in a single pass, or {@code null}
+     * if the token is invalid. Verified tokens are remembered by digest until they
+     * expire, so repeat requests from the same session skip parsing and the HMAC check.
+     */
+    public Claims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        ByteBuffer key = digest(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                cacheHits.increment();
+                return cached.claims();
+            }
+            verifiedTokens.remove(key);
+        }
+        cacheMisses.increment();
+
+        Claims claims = verify(token);
+        if (claims != null && claims.getExpiration() != null) {
+            remember(key, new VerifiedToken(claims, claims.getExpiration().getTime()), now);
+        }
+        return claims;
+    }
+
+    private Claims verify(String token) {
+        Timer.Sample sample = Timer.start();
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token: {}", ex.getMessage());
         } catch (ExpiredJwtException ex) {
@@ -72,10 +156,30 @@ public class JwtProvider {
             log.error("JWT token is unsupported: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            log.error("JWT signature is invalid: {}", ex.getMessage());
+        } finally {
+            sample.stop(verificationTimer);
+        }
+        return null;
+    }
+
+    private void remember(ByteBuffer key, VerifiedToken token, long now) {
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            verifiedTokens.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                return;
+            }
         }
-        return false;
+        verifiedTokens.put(key, token);
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
     }
 
+    private record VerifiedToken(Claims claims, long expiresAt) {}
+
     public long getExpirationMs() {
         return jwtExpirationMs;
     }
@@ -0,0 +1,152 @@
+package com.example.ecom.security;
+
+import com.example.ecom.config.RateLimitProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token buckets kept in process for the request hot path. A scheduled job pushes
+ * each bucket's local consumption to a per-minute Redis counter and drains the
+ * tokens that other replicas consumed, so limits hold across the cluster within
+ * one sync interval.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimiter {
+
+    private static final long WINDOW_MS = 60_000;
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    // Returns 0 when the request may proceed, otherwise the nanoseconds until a token is available
+    public long tryAcquire(String key, RateLimitProperties.Policy policy) {
+        TokenBucket bucket = buckets.computeIfAbsent(key,
+                k -> new TokenBucket(policy.getCapacity(), policy.getRefillPerMinute()));
+        return bucket.tryConsume(System.nanoTime());
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sync-interval-ms:1000}")
+    public void reconcile() {
+        long nowNanos = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(nowNanos, WINDOW_MS * 2_000_000));
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        long window = System.currentTimeMillis() / WINDOW_MS;
+        List<String> keys = new ArrayList<>(buckets.keySet());
+        List<TokenBucket> pending = new ArrayList<>(keys.size());
+        long[] deltas = new long[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            TokenBucket bucket = buckets.get(keys.get(i));
+            pending.add(bucket);
+            deltas[i] = bucket != null ? bucket.takeLocalConsumption() : 0;
+        }
+
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < keys.size(); i++) {
+                    incrementWindow(connection, keys.get(i), window, deltas[i]);
+                }
+                return null;
+            });
+
+            for (int i = 0; i < keys.size(); i++) {
+                Object global = results.get(i * 2);
+                if (pending.get(i) != null && global instanceof Long count) {
+                    pending.get(i).reconcile(window, count, deltas[i]);
+                }
+            }
+        } catch (Exception e) {
+            // Keep limiting locally and retry the push on the next run
+            for (int i = 0; i < keys.size(); i++) {
+                if (pending.get(i) != null) {
+                    pending.get(i).restoreLocalConsumption(deltas[i]);
+                }
+            }
+            log.debug("Rate limit reconciliation with Redis failed: {}", e.getMessage());
+        }
+    }
+
+    private static void incrementWindow(RedisConnection connection, String key, long window, long delta) {
+        byte[] redisKey = (KEY_PREFIX + key + ":" + window).getBytes(StandardCharsets.UTF_8);
+        connection.stringCommands().incrBy(redisKey, delta);
+        connection.keyCommands().expire(redisKey, WINDOW_MS * 2 / 1000);
+    }
+
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+        private long lastAccessNanos;
+        private long localConsumption;
+        private long window;
+        private long lastSeenGlobal;
+
+        TokenBucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / 60_000_000_000.0;
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+            this.lastAccessNanos = lastRefillNanos;
+        }
+
+        synchronized long tryConsume(long nowNanos) {
+            refill(nowNanos);
+            lastAccessNanos = nowNanos;
+            if (tokens >= 1) {
+                tokens -= 1;
+                localConsumption++;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+        }
+
+        synchronized long takeLocalConsumption() {
+            long consumed = localConsumption;
+            localConsumption = 0;
+            return consumed;
+        }
+
+        synchronized void restoreLocalConsumption(long consumed) {
+            localConsumption += consumed;
+        }
+
+        // Drains whatever the other replicas consumed since the last reconciliation
+        synchronized void reconcile(long currentWindow, long global, long pushed) {
+            if (currentWindow != window) {
+                window = currentWindow;
+                lastSeenGlobal = 0;
+            }
+            long remote = global - lastSeenGlobal - pushed;
+            if (remote > 0) {
+                tokens = Math.max(0, tokens - remote);
+            }
+            lastSeenGlobal = global;
+        }
+
+        synchronized boolean isIdle(long nowNanos, long idleNanos) {
+            return localConsumption == 0 && nowNanos - lastAccessNanos > idleNanos;
+        }
+
+        private void refill(long nowNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
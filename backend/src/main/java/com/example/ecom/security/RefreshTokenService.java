@@ -0,0 +1,99 @@
+package com.example.ecom.security;
+
+import com.example.ecom.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens stored in Redis by SHA-256 digest. Every refresh
+ * consumes the presented token and issues a new one in the same family; presenting
+ * an already rotated token is treated as theft and revokes the whole family.
+ */
+@Component
+@Slf4j
+public class RefreshTokenService {
+
+    private static final String TOKEN_PREFIX = "refresh:token:";
+    private static final String USED_PREFIX = "refresh:used:";
+    private static final String FAMILY_PREFIX = "refresh:family:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration refreshTtl;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(StringRedisTemplate redisTemplate,
+                               @Value("${jwt.refresh-expiration-ms:86400000}") long refreshExpirationMs) {
+        this.redisTemplate = redisTemplate;
+        this.refreshTtl = Duration.ofMillis(refreshExpirationMs);
+    }
+
+    public String issue(User user) {
+        return store(UUID.randomUUID().toString(), user.getEmail());
+    }
+
+    // Returns the email of the token owner and a fresh refresh token replacing the presented one
+    public Rotation rotate(String refreshToken) {
+        String digest = digest(refreshToken);
+        String value = redisTemplate.opsForValue().getAndDelete(TOKEN_PREFIX + digest);
+        if (value == null) {
+            String reusedFamily = redisTemplate.opsForValue().get(USED_PREFIX + digest);
+            if (reusedFamily != null) {
+                log.warn("Refresh token reuse detected, revoking token family {}", reusedFamily);
+                revokeFamily(reusedFamily);
+            }
+            throw new BadCredentialsException("Invalid or expired refresh token");
+        }
+
+        String[] parts = value.split(":", 2);
+        redisTemplate.opsForValue().set(USED_PREFIX + digest, parts[0], refreshTtl);
+        return new Rotation(parts[1], store(parts[0], parts[1]));
+    }
+
+    public void revoke(String refreshToken) {
+        String value = redisTemplate.opsForValue().getAndDelete(TOKEN_PREFIX + digest(refreshToken));
+        if (value != null) {
+            redisTemplate.delete(FAMILY_PREFIX + value.split(":", 2)[0]);
+        }
+    }
+
+    private String store(String familyId, String email) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String digest = digest(token);
+
+        redisTemplate.opsForValue().set(TOKEN_PREFIX + digest, familyId + ":" + email, refreshTtl);
+        redisTemplate.opsForValue().set(FAMILY_PREFIX + familyId, digest, refreshTtl);
+        return token;
+    }
+
+    private void revokeFamily(String familyId) {
+        String current = redisTemplate.opsForValue().getAndDelete(FAMILY_PREFIX + familyId);
+        if (current != null) {
+            redisTemplate.delete(TOKEN_PREFIX + current);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Rotation(String email, String refreshToken) {}
+}
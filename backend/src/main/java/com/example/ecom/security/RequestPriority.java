@@ -0,0 +1,39 @@
+package com.example.ecom.security;
+
+import org.springframework.util.AntPathMatcher;
+
+// Share of the adaptive concurrency limit each class of request may occupy before it is shed
+public enum RequestPriority {
+    CRITICAL(1.0),   // checkout and payment verification
+    NORMAL(0.9),     // authentication and account traffic
+    BROWSE(0.75),    // catalog reads
+    BACKGROUND(0.5); // admin reports and data maintenance
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public double share() {
+        return share;
+    }
+
+    public static RequestPriority classify(String method, String path) {
+        if (PATH_MATCHER.match("/api/orders/admin/**", path) || PATH_MATCHER.match("/api/data/**", path)
+                || PATH_MATCHER.match("/api/coupons/admin/**", path)) {
+            return BACKGROUND;
+        }
+        if (PATH_MATCHER.match("/api/payments/**", path)
+                || ("POST".equals(method) && PATH_MATCHER.match("/api/orders", path))) {
+            return CRITICAL;
+        }
+        if ("GET".equals(method) && (PATH_MATCHER.match("/api/products/**", path)
+                || PATH_MATCHER.match("/api/categories/**", path))) {
+            return BROWSE;
+        }
+        return NORMAL;
+    }
+}
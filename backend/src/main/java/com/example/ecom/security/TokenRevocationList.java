@@ -0,0 +1,153 @@
+package com.example.ecom.security;
+
+import com.example.ecom.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist of revoked access token IDs ({@code jti}). Lookups never leave the JVM:
+ * a Bloom filter rejects the common case and an exact map confirms its positives.
+ * Revocations are stored in a Redis sorted set scored by token expiry and broadcast
+ * over pub/sub; a periodic reload catches missed messages and drops expired IDs.
+ * Per-user revocations (every token a user was issued before a given second) are
+ * shared the same way, so a disabled or demoted user is rejected on every node.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList implements MessageListener {
+
+    public static final String CHANNEL = "auth:revoked-jti";
+    public static final String USER_CHANNEL = "auth:revoked-user";
+    private static final String REVOKED_KEY = "auth:revoked-jti";
+    private static final String REVOKED_USERS_KEY = "auth:revoked-user";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int expectedRevocations;
+    private final long tokenLifetimeMs;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    // User ID -> epoch millis before which that user's tokens are rejected
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(StringRedisTemplate redisTemplate,
+                               @Value("${app.security.revocation.expected-entries:100000}") int expectedRevocations,
+                               @Value("${jwt.expiration-ms}") long tokenLifetimeMs) {
+        this.redisTemplate = redisTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.filter = BloomFilter.create(expectedRevocations, 0.001);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public void revoke(String tokenId, long expiresAt) {
+        addLocal(tokenId, expiresAt);
+        try {
+            redisTemplate.opsForZSet().add(REVOKED_KEY, tokenId, expiresAt);
+            redisTemplate.convertAndSend(CHANNEL, tokenId + ":" + expiresAt);
+        } catch (Exception e) {
+            log.warn("Failed to publish token revocation {}: {}", tokenId, e.getMessage());
+        }
+    }
+
+    public void revokeUser(Long userId) {
+        // iat only has whole seconds: truncating keeps a token signed later in the same
+        // second (a fresh login right after a password change) valid
+        long revokedAt = System.currentTimeMillis() / 1000 * 1000;
+        addUserLocal(userId, revokedAt);
+        try {
+            redisTemplate.opsForZSet().add(REVOKED_USERS_KEY, userId.toString(), revokedAt);
+            redisTemplate.convertAndSend(USER_CHANNEL, userId + ":" + revokedAt);
+        } catch (Exception e) {
+            log.warn("Failed to publish token revocation for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    public boolean isUserRevoked(Long userId, Date issuedAt) {
+        Long revokedAt = revokedUsers.get(userId);
+        return revokedAt != null && (issuedAt == null || issuedAt.getTime() < revokedAt);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        if (parts.length != 2) {
+            return;
+        }
+        if (USER_CHANNEL.equals(new String(message.getChannel(), StandardCharsets.UTF_8))) {
+            addUserLocal(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } else {
+            addLocal(parts[0], Long.parseLong(parts[1]));
+        }
+    }
+
+    // Rebuilds the filter from Redis so expired IDs stop occupying bits; also runs at startup
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.security.revocation.reload-interval-ms:60000}")
+    public void reload() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        // Once every token issued before the revocation has expired, the entry is moot
+        revokedUsers.values().removeIf(revokedAt -> revokedAt + tokenLifetimeMs < now);
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_USERS_KEY, Double.NEGATIVE_INFINITY, now - tokenLifetimeMs);
+            Set<ZSetOperations.TypedTuple<String>> users =
+                    redisTemplate.opsForZSet().rangeByScoreWithScores(REVOKED_USERS_KEY, now - tokenLifetimeMs, Double.POSITIVE_INFINITY);
+            if (users != null) {
+                for (ZSetOperations.TypedTuple<String> entry : users) {
+                    if (entry.getValue() != null && entry.getScore() != null) {
+                        addUserLocal(Long.parseLong(entry.getValue()), entry.getScore().longValue());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Failed to reload revoked users from Redis: {}", e.getMessage());
+        }
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, Double.NEGATIVE_INFINITY, now);
+            Set<ZSetOperations.TypedTuple<String>> entries =
+                    redisTemplate.opsForZSet().rangeByScoreWithScores(REVOKED_KEY, now, Double.POSITIVE_INFINITY);
+            if (entries != null) {
+                for (ZSetOperations.TypedTuple<String> entry : entries) {
+                    if (entry.getValue() != null && entry.getScore() != null) {
+                        revoked.putIfAbsent(entry.getValue(), entry.getScore().longValue());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Failed to reload revoked tokens from Redis: {}", e.getMessage());
+        }
+
+        BloomFilter rebuilt = BloomFilter.create(Math.max(expectedRevocations, revoked.size() * 2L), 0.001);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        // Revocations that raced with the rebuild are re-added to the new filter
+        revoked.keySet().forEach(rebuilt::put);
+    }
+
+    private void addLocal(String tokenId, long expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        filter.put(tokenId);
+    }
+
+    private void addUserLocal(Long userId, long revokedAt) {
+        revokedUsers.merge(userId, revokedAt, Math::max);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ecom.security;
+
+import com.example.ecom.entity.User;
+import com.example.ecom.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of {@link User} entities for the code paths that need more
+ * than the token claims. Revoking a user's tokens (for example because the account
+ * was disabled) goes through {@link TokenRevocationList} so every node rejects them.
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final TokenRevocationList revocationList;
+    private final long ttlMs;
+    private final Map<String, CachedUser> byEmail = new ConcurrentHashMap<>();
+
+    public UserCache(UserRepository userRepository,
+                     TokenRevocationList revocationList,
+                     @Value("${app.security.user-cache-ttl-ms:60000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.revocationList = revocationList;
+        this.ttlMs = ttlMs;
+    }
+
+    public User getByEmail(String email) {
+        CachedUser cached = byEmail.get(email);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.user();
+        }
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        put(user);
+        return user;
+    }
+
+    public void put(User user) {
+        byEmail.put(user.getEmail(), new CachedUser(user, System.currentTimeMillis() + ttlMs));
+    }
+
+    public void invalidate(Long userId) {
+        byEmail.values().removeIf(cached -> cached.user().getId().equals(userId));
+    }
+
+    // Tokens issued before this moment are no longer accepted for the user
+    public void revokeTokens(Long userId) {
+        revocationList.revokeUser(userId);
+        invalidate(userId);
+        log.info("Revoked tokens for user {}", userId);
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        return revocationList.isUserRevoked(userId, issuedAt);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.user-cache-ttl-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        byEmail.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private record CachedUser(User user, long expiresAt) {}
+}
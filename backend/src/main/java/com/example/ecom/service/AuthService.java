@@ -2,14 +2,22 @@ package com.example.ecom.service;
 
 import com.example.ecom.dto.AuthResponse;
 import com.example.ecom.dto.LoginRequest;
+import com.example.ecom.dto.RefreshTokenRequest;
 import com.example.ecom.dto.RegisterRequest;
 import com.example.ecom.dto.UserDto;
 import com.example.ecom.entity.User;
 import com.example.ecom.repository.UserRepository;
 import com.example.ecom.security.JwtProvider;
+import com.example.ecom.security.JwtUserPrincipal;
+import com.example.ecom.security.PasswordHashingRejectedException;
+import com.example.ecom.security.RefreshTokenService;
+import com.example.ecom.security.TokenRevocationList;
+import com.example.ecom.security.UserCache;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,23 +36,36 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtProvider jwtProvider;
+    private final UserCache userCache;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList revocationList;
 
-    @Transactional
+    // Not transactional, so no database connection is held while the password hash is queued or computed
     public AuthResponse login(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getEmail(),
-                        loginRequest.getPassword()
-                )
-        );
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getEmail(),
+                            loginRequest.getPassword()
+                    )
+            );
+        } catch (InternalAuthenticationServiceException e) {
+            // The provider wraps a saturated hashing pool as an auth failure; surface it as overload
+            if (e.getCause() instanceof PasswordHashingRejectedException rejected) {
+                throw rejected;
+            }
+            throw e;
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtProvider.generateToken(authentication);
         
         User user = (User) authentication.getPrincipal();
+        userCache.put(user);
         UserDto userDto = UserDto.from(user);
         
-        return AuthResponse.of(jwt, userDto, jwtProvider.getExpirationMs());
+        return AuthResponse.of(jwt, refreshTokenService.issue(user), userDto, jwtProvider.getExpirationMs());
     }
 
     @Transactional
@@ -66,12 +87,34 @@ public class AuthService {
         User savedUser = userRepository.save(user);
         
         // Auto-login after registration
-        String jwt = jwtProvider.generateTokenFromUsername(savedUser.getEmail());
+        String jwt = jwtProvider.generateToken(savedUser);
         UserDto userDto = UserDto.from(savedUser);
         
         log.info("New user registered: {}", savedUser.getEmail());
         
-        return AuthResponse.of(jwt, userDto, jwtProvider.getExpirationMs());
+        return AuthResponse.of(jwt, refreshTokenService.issue(savedUser), userDto, jwtProvider.getExpirationMs());
+    }
+
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = userCache.getByEmail(rotation.email());
+        if (!user.isEnabled()) {
+            refreshTokenService.revoke(rotation.refreshToken());
+            throw new RuntimeException("User account is disabled");
+        }
+
+        String jwt = jwtProvider.generateToken(user);
+        return AuthResponse.of(jwt, rotation.refreshToken(), UserDto.from(user), jwtProvider.getExpirationMs());
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        Claims claims = accessToken != null ? jwtProvider.parseToken(accessToken) : null;
+        if (claims != null && claims.getId() != null) {
+            revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
     }
 
     public User getCurrentUser() {
@@ -79,6 +122,9 @@ public class AuthService {
         if (authentication != null && authentication.getPrincipal() instanceof User) {
             return (User) authentication.getPrincipal();
         }
+        if (authentication != null && authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return userCache.getByEmail(principal.getUsername());
+        }
         throw new RuntimeException("User not authenticated");
     }
 
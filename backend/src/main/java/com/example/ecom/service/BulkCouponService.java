@@ -0,0 +1,297 @@
+package com.example.ecom.service;
+
+import com.example.ecom.config.Workload;
+import com.example.ecom.config.WorkloadContext;
+import com.example.ecom.dto.BulkCouponJobDto;
+import com.example.ecom.dto.BulkCouponRequest;
+import com.example.ecom.repository.CouponRepository;
+import com.example.ecom.util.BloomFilter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mints large batches of single-use coupon codes. Codes are generated as random
+ * base-32 numbers so a million of them fit in a {@code long[]}, deduplicated by
+ * parallel sort, screened against existing codes with a Bloom filter and
+ * written with JDBC batch inserts.
+ */
+@Service
+@Slf4j
+public class BulkCouponService {
+
+    // Ascending ASCII order, so sorting the numeric values also sorts the rendered codes
+    private static final char[] ALPHABET = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ".toCharArray();
+    private static final int LOOKUP_CHUNK = 1000;
+    // Draws from the same pooled sequence as Hibernate; each raw insert consumes one whole block value
+    private static final String INSERT_SQL = "INSERT INTO coupons (id, code, description, discount_type, discount_value, " +
+            "min_order_cents, max_discount_cents, usage_limit, used_count, valid_from, valid_to, is_active, is_public, " +
+            "created_at, updated_at) VALUES (nextval('coupons_seq'), ?, ?, ?, ?, ?, ?, 1, 0, ?, ?, true, false, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CouponRepository couponRepository;
+    private final int batchSize;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-coupon");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(BulkCouponService::newRandom);
+
+    public BulkCouponService(JdbcTemplate jdbcTemplate,
+                             NamedParameterJdbcTemplate namedJdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             CouponRepository couponRepository,
+                             @Value("${app.coupon.bulk.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(10000);
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.couponRepository = couponRepository;
+        this.batchSize = batchSize;
+    }
+
+    public BulkCouponJobDto startGeneration(BulkCouponRequest request) {
+        if (!request.getValidTo().isAfter(request.getValidFrom())) {
+            throw new RuntimeException("Coupon validity end must be after its start");
+        }
+        int length = request.getCodeLength() != null ? request.getCodeLength() : 10;
+        if (request.getCount() > (1L << (5 * length)) / 4) {
+            throw new RuntimeException("Code length " + length + " is too short for " + request.getCount() + " codes");
+        }
+
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(LocalDateTime.now().minusDays(1)));
+
+        Job job = new Job(UUID.randomUUID().toString(), request.getCount());
+        jobs.put(job.id, job);
+        executor.submit(() -> run(job, request, length));
+        return job.toDto();
+    }
+
+    public Optional<BulkCouponJobDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toDto);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job, BulkCouponRequest request, int length) {
+        long start = System.currentTimeMillis();
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            String prefix = request.getPrefix() != null ? request.getPrefix().toUpperCase() : "";
+
+            job.status = "GENERATING";
+            long[] codes = generateUniqueCodes(job, prefix, length, request.getCount());
+
+            job.status = "INSERTING";
+            insertCodes(job, prefix, length, codes, request);
+
+            job.status = "COMPLETED";
+            log.info("Bulk coupon job {} inserted {} codes in {} ms", job.id, codes.length,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            job.status = "FAILED";
+            job.error = e.getMessage();
+            log.error("Bulk coupon job {} failed", job.id, e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private long[] generateUniqueCodes(Job job, String prefix, int length, int count) {
+        BloomFilter existing = loadExistingCodes(prefix, length, count);
+        long[] accepted = new long[0];
+
+        while (accepted.length < count) {
+            int needed = count - accepted.length;
+            long[] candidates = randomSortedDistinct(needed + needed / 100 + 16, length);
+
+            long[] alreadyAccepted = accepted;
+            long[] fresh = Arrays.stream(candidates).parallel()
+                    .filter(value -> Arrays.binarySearch(alreadyAccepted, value) < 0)
+                    .toArray();
+
+            long[] suspects = Arrays.stream(fresh).parallel()
+                    .filter(value -> existing.mightContain(render(prefix, value, length)))
+                    .toArray();
+            if (suspects.length > 0) {
+                Set<String> taken = findExistingCodes(prefix, length, suspects);
+                fresh = Arrays.stream(fresh).parallel()
+                        .filter(value -> !taken.contains(render(prefix, value, length)))
+                        .toArray();
+            }
+
+            accepted = mergeSorted(accepted, fresh, count);
+            job.generated.set(accepted.length);
+        }
+        return accepted;
+    }
+
+    private BloomFilter loadExistingCodes(String prefix, int length, int count) {
+        BloomFilter filter = BloomFilter.create(couponRepository.count() + count, 0.001);
+        // Inside a transaction so the Postgres driver honours the fetch size and streams the rows
+        transactionTemplate.executeWithoutResult(status ->
+                streamingJdbcTemplate.query("SELECT code FROM coupons WHERE code LIKE ? AND LENGTH(code) = ?",
+                        (RowCallbackHandler) rs -> filter.put(rs.getString(1)),
+                        prefix + "%", prefix.length() + length));
+        return filter;
+    }
+
+    private Set<String> findExistingCodes(String prefix, int length, long[] suspects) {
+        Set<String> taken = new HashSet<>();
+        for (int from = 0; from < suspects.length; from += LOOKUP_CHUNK) {
+            List<String> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + LOOKUP_CHUNK, suspects.length); i++) {
+                chunk.add(render(prefix, suspects[i], length));
+            }
+            taken.addAll(namedJdbcTemplate.queryForList("SELECT code FROM coupons WHERE code IN (:codes)",
+                    new MapSqlParameterSource("codes", chunk), String.class));
+        }
+        return taken;
+    }
+
+    private void insertCodes(Job job, String prefix, int length, long[] codes, BulkCouponRequest request) {
+        Timestamp validFrom = Timestamp.valueOf(request.getValidFrom());
+        Timestamp validTo = Timestamp.valueOf(request.getValidTo());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int from = 0; from < codes.length; from += batchSize) {
+            int offset = from;
+            int size = Math.min(batchSize, codes.length - from);
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setString(1, render(prefix, codes[offset + i], length));
+                    ps.setString(2, request.getDescription());
+                    ps.setString(3, request.getDiscountType().name());
+                    ps.setInt(4, request.getDiscountValue());
+                    ps.setInt(5, request.getMinOrderCents());
+                    if (request.getMaxDiscountCents() != null) {
+                        ps.setInt(6, request.getMaxDiscountCents());
+                    } else {
+                        ps.setNull(6, Types.INTEGER);
+                    }
+                    ps.setTimestamp(7, validFrom);
+                    ps.setTimestamp(8, validTo);
+                    ps.setTimestamp(9, now);
+                    ps.setTimestamp(10, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+            job.inserted.addAndGet(size);
+        }
+    }
+
+    private long[] randomSortedDistinct(int size, int length) {
+        long mask = (1L << (5 * length)) - 1;
+        long[] values = new long[size];
+        Arrays.parallelSetAll(values, i -> random.get().nextLong() & mask);
+        Arrays.parallelSort(values);
+
+        int distinct = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, distinct);
+    }
+
+    // Merges two sorted, mutually disjoint arrays, keeping at most limit values
+    private static long[] mergeSorted(long[] left, long[] right, int limit) {
+        long[] merged = new long[Math.min(limit, left.length + right.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (k < merged.length && i < left.length && j < right.length) {
+            merged[k++] = left[i] < right[j] ? left[i++] : right[j++];
+        }
+        while (k < merged.length && i < left.length) {
+            merged[k++] = left[i++];
+        }
+        while (k < merged.length && j < right.length) {
+            merged[k++] = right[j++];
+        }
+        return merged;
+    }
+
+    private static String render(String prefix, long value, int length) {
+        char[] chars = new char[prefix.length() + length];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        for (int i = chars.length - 1; i >= prefix.length(); i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    private static class Job {
+        private final String id;
+        private final int requested;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong generated = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private volatile String status = "QUEUED";
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id, int requested) {
+            this.id = id;
+            this.requested = requested;
+        }
+
+        private BulkCouponJobDto toDto() {
+            return BulkCouponJobDto.builder()
+                    .jobId(id)
+                    .status(status)
+                    .requested(requested)
+                    .generated(generated.get())
+                    .inserted(inserted.get())
+                    .error(error)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.ecom.service;
+
+import com.example.ecom.config.DataSourceWorkload;
+import com.example.ecom.config.Workload;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides when catalog reads should stop waiting on the database. Outcomes of
+ * recent catalog loads are kept in a sliding window; when enough of them failed
+ * or were slower than the latency bound, the breaker opens and reads are served
+ * from snapshots. While open, a cheap probe query runs in the background and the
+ * breaker closes again as soon as one comes back fast.
+ */
+@Component
+@Slf4j
+@DataSourceWorkload(Workload.BROWSE)
+public class CatalogCircuitBreaker {
+
+    private static final byte OK = 0;
+    private static final byte BAD = 1;
+
+    private final JdbcTemplate probeTemplate;
+    private final long slowCallMs;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock: ring buffer of recent outcomes
+    private final byte[] window;
+    private int next;
+    private int recorded;
+    private int bad;
+    private volatile boolean open;
+    private volatile long openedAt;
+
+    public CatalogCircuitBreaker(JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.catalog.degraded.window-size:50}") int windowSize,
+                                 @Value("${app.catalog.degraded.minimum-calls:10}") int minimumCalls,
+                                 @Value("${app.catalog.degraded.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                 @Value("${app.catalog.degraded.slow-call-ms:2000}") long slowCallMs) {
+        this.probeTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.probeTemplate.setQueryTimeout((int) Math.max(1, slowCallMs / 1000));
+        this.window = new byte[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMs = slowCallMs;
+        Gauge.builder("catalog.degraded", this, breaker -> breaker.isOpen() ? 1 : 0)
+                .description("1 while catalog reads are served from snapshots")
+                .register(meterRegistry);
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public long getOpenedAt() {
+        return openedAt;
+    }
+
+    public void recordSuccess(long elapsedMs) {
+        record(elapsedMs > slowCallMs ? BAD : OK);
+    }
+
+    public void recordFailure() {
+        record(BAD);
+    }
+
+    // Only database trouble counts; a bad request or a missing product says nothing about Postgres
+    public static boolean isDatabaseFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessException || cause instanceof TransactionException
+                    || cause instanceof SQLException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.degraded.probe-interval-ms:5000}")
+    public void probe() {
+        if (!open) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            probeTemplate.queryForObject("SELECT 1", Integer.class);
+            long elapsed = System.currentTimeMillis() - start;
+            if (elapsed <= slowCallMs) {
+                close(elapsed);
+            } else {
+                log.info("Database probe took {} ms, catalog stays degraded", elapsed);
+            }
+        } catch (Exception e) {
+            log.info("Database probe failed, catalog stays degraded: {}", e.getMessage());
+        }
+    }
+
+    private void record(byte outcome) {
+        lock.lock();
+        try {
+            if (open) {
+                return;
+            }
+            if (recorded == window.length) {
+                bad -= window[next];
+            } else {
+                recorded++;
+            }
+            window[next] = outcome;
+            bad += outcome;
+            next = (next + 1) % window.length;
+
+            if (recorded >= minimumCalls && (double) bad / recorded >= failureRateThreshold) {
+                open = true;
+                openedAt = System.currentTimeMillis();
+                log.warn("{} of the last {} catalog loads failed or were slow, serving catalog snapshots", bad, recorded);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void close(long probeMs) {
+        lock.lock();
+        try {
+            open = false;
+            next = 0;
+            recorded = 0;
+            bad = 0;
+            log.info("Database probe answered in {} ms after {} ms degraded, catalog reads resume",
+                    probeMs, System.currentTimeMillis() - openedAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
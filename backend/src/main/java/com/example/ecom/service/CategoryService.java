@@ -1,23 +1,35 @@
 package com.example.ecom.service;
 
+import com.example.ecom.config.DataSourceWorkload;
+import com.example.ecom.config.Workload;
 import com.example.ecom.dto.CategoryDto;
 import com.example.ecom.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@DataSourceWorkload(Workload.BROWSE)
 public class CategoryService {
 
+    // Categories change rarely; re-checking their version this often is enough for HTTP validators
+    private static final long VERSION_CHECK_INTERVAL_MS = 30_000;
+
     private final CategoryRepository categoryRepository;
+    private volatile long lastModified;
+    private volatile long lastModifiedCheckedAt;
 
-    @Cacheable(value = "categories", key = "'all'")
+    @Cacheable(value = "categories", sync = true, key = "'all'")
+    @Transactional(readOnly = true)
     public List<CategoryDto> getAllCategories() {
         return categoryRepository.findAll()
                 .stream()
@@ -25,11 +37,31 @@ public class CategoryService {
                 .toList();
     }
 
+    // Epoch millis of the newest category change, or 0 when unknown. Not transactional,
+    // so the memoized path never touches the pool.
+    public long lastModified() {
+        long now = System.currentTimeMillis();
+        if (now - lastModifiedCheckedAt > VERSION_CHECK_INTERVAL_MS) {
+            lastModifiedCheckedAt = now;
+            try {
+                lastModified = categoryRepository.findLastUpdatedAt()
+                        .map(updatedAt -> Timestamp.valueOf(updatedAt).getTime())
+                        .orElse(0L);
+            } catch (DataAccessException e) {
+                // Keep the last known version so degraded catalog responses can still be served
+                log.warn("Could not read the category version: {}", e.getMessage());
+            }
+        }
+        return lastModified;
+    }
+
+    @Transactional(readOnly = true)
     public Optional<CategoryDto> getCategoryById(Long id) {
         return categoryRepository.findById(id)
                 .map(CategoryDto::from);
     }
 
+    @Transactional(readOnly = true)
     public Optional<CategoryDto> getCategoryBySlug(String slug) {
         return categoryRepository.findBySlug(slug)
                 .map(CategoryDto::from);
@@ -0,0 +1,138 @@
+package com.example.ecom.service;
+
+import com.example.ecom.entity.Coupon;
+import com.example.ecom.repository.CouponRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory snapshot of redeemable public coupons, sorted by minimum order amount
+ * with running maxima of each coupon's discount upper bound. Finding the best
+ * coupon for a cart is a binary search plus a backwards scan that stops as soon
+ * as no remaining coupon can beat the best discount found so far.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CouponIndex {
+
+    private final CouponRepository couponRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(new Entry[0]);
+
+    @Scheduled(fixedDelayString = "${app.coupon.index.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            List<Coupon> coupons = couponRepository.findRedeemablePublicCoupons(LocalDateTime.now());
+            Entry[] entries = coupons.stream()
+                    .map(Entry::from)
+                    .sorted(Comparator.comparingInt(Entry::minOrderCents))
+                    .toArray(Entry[]::new);
+            snapshot = new Snapshot(entries);
+            log.debug("Coupon index refreshed with {} coupons", entries.length);
+        } catch (Exception e) {
+            log.warn("Failed to refresh coupon index: {}", e.getMessage());
+        }
+    }
+
+    public Optional<Match> findBest(int orderAmountCents, LocalDateTime now) {
+        return snapshot.findBest(orderAmountCents, now);
+    }
+
+    public record Match(Coupon coupon, int discountCents) {}
+
+    private record Entry(Coupon coupon, int minOrderCents, boolean percentage, int value,
+                         int capCents, LocalDateTime validFrom, LocalDateTime validTo) {
+
+        static Entry from(Coupon coupon) {
+            boolean percentage = coupon.getDiscountType() == Coupon.DiscountType.PERCENTAGE;
+            int cap = coupon.getMaxDiscountCents() != null ? coupon.getMaxDiscountCents() : Integer.MAX_VALUE;
+            return new Entry(coupon, coupon.getMinOrderCents(), percentage, coupon.getDiscountValue(), cap,
+                    coupon.getValidFrom(), coupon.getValidTo());
+        }
+
+        // Same arithmetic as Coupon.calculateDiscount without re-checking validity per call
+        int discount(int orderAmountCents) {
+            int discount = percentage
+                    ? (int) Math.min(capCents, (long) orderAmountCents * value / 100)
+                    : value;
+            return Math.min(discount, orderAmountCents);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Entry[] entries;
+        private final int[] thresholds;
+        // Running maxima over entries[0..i]: fixed amounts and percentage caps, and uncapped percentages
+        private final int[] maxStaticBound;
+        private final int[] maxUncappedPercent;
+
+        Snapshot(Entry[] entries) {
+            this.entries = entries;
+            this.thresholds = new int[entries.length];
+            this.maxStaticBound = new int[entries.length];
+            this.maxUncappedPercent = new int[entries.length];
+
+            int staticBound = 0;
+            int uncappedPercent = 0;
+            for (int i = 0; i < entries.length; i++) {
+                Entry entry = entries[i];
+                thresholds[i] = entry.minOrderCents();
+                if (!entry.percentage()) {
+                    staticBound = Math.max(staticBound, entry.value());
+                } else if (entry.capCents() != Integer.MAX_VALUE) {
+                    staticBound = Math.max(staticBound, entry.capCents());
+                } else {
+                    uncappedPercent = Math.max(uncappedPercent, entry.value());
+                }
+                maxStaticBound[i] = staticBound;
+                maxUncappedPercent[i] = uncappedPercent;
+            }
+        }
+
+        Optional<Match> findBest(int orderAmountCents, LocalDateTime now) {
+            Entry best = null;
+            int bestDiscount = 0;
+
+            for (int i = eligibleCount(orderAmountCents) - 1; i >= 0; i--) {
+                long bound = Math.max(Math.min(maxStaticBound[i], orderAmountCents),
+                        (long) orderAmountCents * maxUncappedPercent[i] / 100);
+                if (bound <= bestDiscount) {
+                    break;
+                }
+
+                Entry entry = entries[i];
+                if (now.isBefore(entry.validFrom()) || now.isAfter(entry.validTo())) {
+                    continue;
+                }
+                int discount = entry.discount(orderAmountCents);
+                if (discount > bestDiscount) {
+                    best = entry;
+                    bestDiscount = discount;
+                }
+            }
+
+            return best != null ? Optional.of(new Match(best.coupon(), bestDiscount)) : Optional.empty();
+        }
+
+        // Number of entries whose minimum order amount is at most the cart total
+        private int eligibleCount(int orderAmountCents) {
+            int index = Arrays.binarySearch(thresholds, orderAmountCents);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index < thresholds.length && thresholds[index] == orderAmountCents) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
@@ -1,21 +1,32 @@
 package com.example.ecom.service;
 
 import com.example.ecom.dto.ApplyCouponRequest;
+import com.example.ecom.dto.BestCouponRequest;
 import com.example.ecom.dto.CouponDto;
 import com.example.ecom.dto.CouponValidationResponse;
 import com.example.ecom.entity.Coupon;
+import com.example.ecom.entity.Product;
 import com.example.ecom.repository.CouponRepository;
+import com.example.ecom.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CouponService {
 
     private final CouponRepository couponRepository;
+    private final CouponUsageCounter usageCounter;
+    private final CouponIndex couponIndex;
+    private final ProductRepository productRepository;
 
     @Transactional(readOnly = true)
     public CouponValidationResponse validateCoupon(ApplyCouponRequest request) {
@@ -67,14 +78,77 @@ public class CouponService {
         );
     }
 
+    public CouponValidationResponse findBestCoupon(BestCouponRequest request) {
+        int orderAmountCents = request.getOrderAmountCents() != null
+                ? request.getOrderAmountCents()
+                : calculateCartTotal(request);
+
+        return couponIndex.findBest(orderAmountCents, LocalDateTime.now())
+                .map(match -> new CouponValidationResponse(
+                        true,
+                        "Best coupon found",
+                        match.discountCents(),
+                        orderAmountCents - match.discountCents(),
+                        mapToDto(match.coupon())
+                ))
+                .orElseGet(() -> new CouponValidationResponse(
+                        false,
+                        "No coupon applies to this order",
+                        0,
+                        orderAmountCents,
+                        null
+                ));
+    }
+
+    private int calculateCartTotal(BestCouponRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Order amount or cart items are required");
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(
+                        request.getItems().stream().map(BestCouponRequest.CartItem::getProductId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        int totalCents = 0;
+        for (BestCouponRequest.CartItem item : request.getItems()) {
+            Product product = products.get(item.getProductId());
+            if (product == null) {
+                throw new RuntimeException("Product not found: " + item.getProductId());
+            }
+            totalCents += product.getPriceCents() * item.getQuantity();
+        }
+        return totalCents;
+    }
+
+    // Atomically reserves one redemption; returns false when the coupon is exhausted or no longer redeemable
     @Transactional
-    public void incrementUsageCount(String couponCode) {
-        couponRepository.findByCode(couponCode.toUpperCase())
-                .ifPresent(coupon -> {
-                    coupon.setUsedCount(coupon.getUsedCount() + 1);
-                    couponRepository.save(coupon);
-                    log.info("Coupon {} usage incremented to {}", couponCode, coupon.getUsedCount());
-                });
+    public boolean reserveUsage(Coupon coupon) {
+        if (usageCounter.isStriped(coupon)) {
+            usageCounter.incrementAfterCommit(coupon.getId());
+            return true;
+        }
+
+        boolean reserved = couponRepository.reserveUsage(coupon.getId(), LocalDateTime.now()) == 1;
+        if (reserved) {
+            log.info("Coupon {} usage reserved", coupon.getCode());
+        } else {
+            log.info("Coupon {} could not be reserved, usage limit reached", coupon.getCode());
+        }
+        return reserved;
+    }
+
+    @Transactional
+    public void releaseUsage(Coupon coupon) {
+        // Mirrors reserveUsage: striped redemptions may still be pending in memory
+        if (usageCounter.isStriped(coupon)) {
+            usageCounter.decrementAfterCommit(coupon.getId());
+            log.info("Coupon {} usage released", coupon.getId());
+            return;
+        }
+        if (couponRepository.releaseUsage(coupon.getId()) > 0) {
+            log.info("Coupon {} usage released", coupon.getId());
+        }
     }
 
     private CouponDto mapToDto(Coupon coupon) {
@@ -0,0 +1,102 @@
+package com.example.ecom.service;
+
+import com.example.ecom.entity.Coupon;
+import com.example.ecom.repository.CouponRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped in-memory usage counters for unlimited and very high-limit coupons.
+ * Redemptions are accumulated locally and merged into {@code coupons.used_count}
+ * periodically, so a viral code does not serialize every checkout on one row.
+ */
+@Component
+@Slf4j
+public class CouponUsageCounter {
+
+    private final CouponRepository couponRepository;
+    private final int stripedThreshold;
+    private final int stripedHeadroom;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public CouponUsageCounter(CouponRepository couponRepository,
+                              @Value("${app.coupon.usage.striped-threshold:10000}") int stripedThreshold,
+                              @Value("${app.coupon.usage.striped-headroom:1000}") int stripedHeadroom) {
+        this.couponRepository = couponRepository;
+        this.stripedThreshold = stripedThreshold;
+        this.stripedHeadroom = stripedHeadroom;
+    }
+
+    // High-limit codes only stay striped while they are far enough from the limit
+    public boolean isStriped(Coupon coupon) {
+        if (coupon.getUsageLimit() == null) {
+            return true;
+        }
+        if (coupon.getUsageLimit() < stripedThreshold) {
+            return false;
+        }
+        long remaining = coupon.getUsageLimit() - coupon.getUsedCount() - pendingCount(coupon.getId());
+        return remaining > stripedHeadroom;
+    }
+
+    public void incrementAfterCommit(Long couponId) {
+        addAfterCommit(couponId, 1);
+    }
+
+    // A release may cancel a redemption that has not been flushed yet, so it goes through the same stripes
+    public void decrementAfterCommit(Long couponId) {
+        addAfterCommit(couponId, -1);
+    }
+
+    public long pendingCount(Long couponId) {
+        LongAdder adder = pending.get(couponId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.coupon.usage.flush-interval-ms:5000}")
+    public void flush() {
+        pending.forEach((couponId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta == 0) {
+                return;
+            }
+            try {
+                couponRepository.addUsage(couponId, (int) delta);
+            } catch (Exception e) {
+                adder.add(delta);
+                log.warn("Failed to flush {} pending usages for coupon {}: {}", delta, couponId, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void addAfterCommit(Long couponId, int delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(couponId, delta);
+                }
+            });
+        } else {
+            add(couponId, delta);
+        }
+    }
+
+    private void add(Long couponId, int delta) {
+        pending.computeIfAbsent(couponId, id -> new LongAdder()).add(delta);
+    }
+}
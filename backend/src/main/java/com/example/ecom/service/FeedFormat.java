@@ -0,0 +1,16 @@
+package com.example.ecom.service;
+
+/**
+ * Line-oriented upload formats accepted by the catalog import and stock feed endpoints.
+ */
+public enum FeedFormat {
+    CSV,
+    NDJSON;
+
+    public static FeedFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase().startsWith("text/csv")) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.ecom.service;
+
+import com.example.ecom.config.DataSourceWorkload;
+import com.example.ecom.config.Workload;
+import com.example.ecom.dto.StockFeedResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Applies full warehouse stock snapshots as deltas. Each row is compared with the
+ * count last applied for its SKU and only changed SKUs are sent to the database,
+ * one set-based UPDATE per batch that also skips rows already at that count. Every
+ * committed batch publishes a {@link StockChangedEvent} for the products it touched.
+ */
+@Service
+@Slf4j
+@DataSourceWorkload(Workload.ADMIN)
+public class InventoryFeedService {
+
+    private static final String APPLY_SQL = "UPDATE products p SET inventory_count = v.quantity, updated_at = now() " +
+            "FROM unnest(?::text[], ?::int[]) AS v(sku, quantity) " +
+            "WHERE p.sku = v.sku AND p.inventory_count IS DISTINCT FROM v.quantity " +
+            "RETURNING p.id, p.slug, p.inventory_count, p.updated_at";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long stateTtlMs;
+    // One feed at a time: the diff state is shared by all feeds. A lock rather than
+    // synchronized so virtual threads do not pin their carrier during the JDBC work.
+    private final ReentrantLock feedLock = new ReentrantLock();
+    // SKU -> count last applied; guarded by feedLock
+    private Map<String, Integer> lastApplied = new HashMap<>();
+    private long stateLoadedAt;
+
+    public InventoryFeedService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                @Value("${app.inventory.feed.batch-size:2000}") int batchSize,
+                                @Value("${app.inventory.feed.state-ttl-ms:3600000}") long stateTtlMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(10000);
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.stateTtlMs = stateTtlMs;
+    }
+
+    public StockFeedResult applyFeed(InputStream body, FeedFormat format) {
+        feedLock.lock();
+        try {
+            return applyFeedLocked(body, format);
+        } finally {
+            feedLock.unlock();
+        }
+    }
+
+    private StockFeedResult applyFeedLocked(InputStream body, FeedFormat format) {
+        long start = System.currentTimeMillis();
+        if (stateLoadedAt + stateTtlMs < start) {
+            lastApplied = loadCurrentCounts();
+            stateLoadedAt = start;
+        }
+
+        StockFeedResult result = StockFeedResult.builder().errors(new ArrayList<>()).build();
+        Map<String, Integer> batch = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            FeedReader rows = format == FeedFormat.CSV ? new CsvFeedReader(reader) : new NdjsonFeedReader(reader, objectMapper);
+            FeedRow row;
+            while ((row = rows.next()) != null) {
+                result.setReceived(result.getReceived() + 1);
+                if (row.error() != null) {
+                    reject(result, "Line " + row.line() + ": " + row.error());
+                    continue;
+                }
+                if (Objects.equals(lastApplied.get(row.sku()), row.quantity())) {
+                    result.setUnchanged(result.getUnchanged() + 1);
+                    continue;
+                }
+                batch.put(row.sku(), row.quantity());
+                if (batch.size() >= batchSize) {
+                    apply(batch, result);
+                }
+            }
+            apply(batch, result);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read stock feed", e);
+        }
+
+        result.setDurationMs(System.currentTimeMillis() - start);
+        log.info("Stock feed: {} rows, {} unchanged, {} submitted, {} updated, {} rejected in {} ms",
+                result.getReceived(), result.getUnchanged(), result.getSubmitted(), result.getUpdated(),
+                result.getRejected(), result.getDurationMs());
+        return result;
+    }
+
+    private void apply(Map<String, Integer> batch, StockFeedResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        String[] skus = batch.keySet().toArray(String[]::new);
+        Integer[] quantities = batch.values().toArray(Integer[]::new);
+
+        List<StockChangedEvent.StockChange> changes = transactionTemplate.execute(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(APPLY_SQL);
+            ps.setArray(1, con.createArrayOf("text", skus));
+            ps.setArray(2, con.createArrayOf("integer", quantities));
+            return ps;
+        }, (rs, rowNum) -> new StockChangedEvent.StockChange(
+                rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getTimestamp(4).toLocalDateTime())));
+
+        // SKUs without a product are remembered too, so they are not resent until they change
+        lastApplied.putAll(batch);
+        result.setSubmitted(result.getSubmitted() + batch.size());
+        result.setUpdated(result.getUpdated() + changes.size());
+        batch.clear();
+
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(changes));
+        }
+    }
+
+    private Map<String, Integer> loadCurrentCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        // Inside a transaction so the Postgres driver honours the fetch size and streams the rows
+        transactionTemplate.executeWithoutResult(status ->
+                streamingJdbcTemplate.query("SELECT sku, inventory_count FROM products WHERE sku IS NOT NULL",
+                        (RowCallbackHandler) rs -> counts.put(rs.getString(1), rs.getInt(2))));
+        return counts;
+    }
+
+    private static void reject(StockFeedResult result, String error) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(error);
+        }
+    }
+
+    private static FeedRow parse(long line, String sku, String quantity) {
+        if (sku == null || sku.isBlank()) {
+            return new FeedRow(line, null, null, "Missing sku");
+        }
+        try {
+            int value = Integer.parseInt(quantity == null ? "" : quantity.trim());
+            if (value < 0) {
+                return new FeedRow(line, null, null, "Negative quantity for " + sku.trim());
+            }
+            return new FeedRow(line, sku.trim(), value, null);
+        } catch (NumberFormatException e) {
+            return new FeedRow(line, null, null, "Invalid quantity for " + sku.trim() + ": " + quantity);
+        }
+    }
+
+    private record FeedRow(long line, String sku, Integer quantity, String error) {
+    }
+
+    private interface FeedReader {
+        FeedRow next() throws IOException; // Null at end of input
+    }
+
+    // "sku,quantity" with a header row; SKUs never need quoting
+    private static class CsvFeedReader implements FeedReader {
+        private final BufferedReader reader;
+        private int skuColumn = -1;
+        private int quantityColumn = -1;
+        private long line;
+
+        private CsvFeedReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public FeedRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                String[] columns = text.split(",", -1);
+                if (skuColumn < 0) {
+                    List<String> header = Arrays.stream(columns).map(c -> c.trim().replace("\"", "").toLowerCase()).toList();
+                    skuColumn = header.indexOf("sku");
+                    quantityColumn = header.indexOf("quantity");
+                    if (skuColumn < 0 || quantityColumn < 0) {
+                        throw new RuntimeException("Stock feed header must contain sku and quantity columns");
+                    }
+                    continue;
+                }
+                if (columns.length <= Math.max(skuColumn, quantityColumn)) {
+                    return new FeedRow(line, null, null, "Too few columns");
+                }
+                return parse(line, columns[skuColumn].replace("\"", ""), columns[quantityColumn].replace("\"", ""));
+            }
+            return null;
+        }
+    }
+
+    private static class NdjsonFeedReader implements FeedReader {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        private NdjsonFeedReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public FeedRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (IOException e) {
+                    return new FeedRow(line, null, null, "Malformed JSON");
+                }
+                return parse(line, node.path("sku").asText(null), node.path("quantity").asText(null));
+            }
+            return null;
+        }
+    }
+}
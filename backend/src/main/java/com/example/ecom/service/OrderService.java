@@ -1,6 +1,9 @@
 package com.example.ecom.service;
 
+import com.example.ecom.config.DataSourceWorkload;
+import com.example.ecom.config.Workload;
 import com.example.ecom.dto.CreateOrderRequest;
+import com.example.ecom.dto.FieldSet;
 import com.example.ecom.dto.OrderDto;
 import com.example.ecom.entity.Order;
 import com.example.ecom.entity.OrderItem;
@@ -8,41 +11,52 @@ import com.example.ecom.entity.Product;
 import com.example.ecom.entity.User;
 import com.example.ecom.repository.OrderRepository;
 import com.example.ecom.repository.ProductRepository;
-import com.example.ecom.repository.UserRepository;
+import com.example.ecom.security.UserCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@DataSourceWorkload(Workload.CHECKOUT)
 public class OrderService {
 
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final CouponService couponService;
     private final ObjectMapper objectMapper;
 
     @Transactional
     public OrderDto createOrder(CreateOrderRequest request, String userEmail) {
         // Find user
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        User user = userCache.getByEmail(userEmail);
 
         // Calculate total and validate products
         int totalCents = 0;
         List<OrderItem> orderItems = new ArrayList<>();
 
+        // One IN query for all lines; the entities stay managed so the inventory update below applies
+        Map<Long, Product> products = productRepository.findAllById(request.getItems().stream()
+                        .map(CreateOrderRequest.OrderItemRequest::getProductId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
         for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
+            Product product = Optional.ofNullable(products.get(itemRequest.getProductId()))
                     .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
 
             // Check inventory
@@ -107,18 +121,16 @@ public class OrderService {
     }
 
     @Transactional(readOnly = true)
-    public Page<OrderDto> getMyOrders(String userEmail, Pageable pageable) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public Page<OrderDto> getMyOrders(String userEmail, Pageable pageable, FieldSet fields) {
+        User user = userCache.getByEmail(userEmail);
 
         return orderRepository.findByUser_IdOrderByCreatedAtDesc(user.getId(), pageable)
-                .map(OrderDto::from);
+                .map(order -> OrderDto.from(order, fields));
     }
 
     @Transactional(readOnly = true)
-    public OrderDto getOrderById(Long orderId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public OrderDto getOrderById(Long orderId, String userEmail, FieldSet fields) {
+        User user = userCache.getByEmail(userEmail);
 
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
@@ -128,30 +140,40 @@ public class OrderService {
             throw new RuntimeException("Access denied");
         }
 
-        return OrderDto.from(order);
+        return OrderDto.from(order, fields);
     }
 
     @Transactional
+    @DataSourceWorkload(Workload.ADMIN)
     public OrderDto updateOrderStatus(Long orderId, Order.OrderStatus status) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
         order = orderRepository.save(order);
 
+        // Give the redemption back when an order that used a coupon is cancelled
+        if (status == Order.OrderStatus.CANCELLED && previousStatus != Order.OrderStatus.CANCELLED
+                && order.getCoupon() != null) {
+            couponService.releaseUsage(order.getCoupon());
+        }
+
         log.info("Order {} status updated to: {}", orderId, status);
         return OrderDto.from(order);
     }
 
     @Transactional(readOnly = true)
-    public Page<OrderDto> getAllOrders(Pageable pageable) {
+    @DataSourceWorkload(Workload.ADMIN)
+    public Page<OrderDto> getAllOrders(Pageable pageable, FieldSet fields) {
         return orderRepository.findAll(pageable)
-                .map(OrderDto::from);
+                .map(order -> OrderDto.from(order, fields));
     }
 
     @Transactional(readOnly = true)
-    public Page<OrderDto> getOrdersByStatus(Order.OrderStatus status, Pageable pageable) {
+    @DataSourceWorkload(Workload.ADMIN)
+    public Page<OrderDto> getOrdersByStatus(Order.OrderStatus status, Pageable pageable, FieldSet fields) {
         return orderRepository.findByStatusOrderByCreatedAtDesc(status, pageable)
-                .map(OrderDto::from);
+                .map(order -> OrderDto.from(order, fields));
     }
 }
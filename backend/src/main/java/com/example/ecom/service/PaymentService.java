@@ -1,8 +1,11 @@
 package com.example.ecom.service;
 
+import com.example.ecom.config.DataSourceWorkload;
+import com.example.ecom.config.Workload;
 import com.example.ecom.dto.*;
 import com.example.ecom.entity.*;
 import com.example.ecom.repository.*;
+import com.example.ecom.security.UserCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.razorpay.Order;
 import com.razorpay.RazorpayClient;
@@ -11,62 +14,81 @@ import com.razorpay.Utils;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
+@DataSourceWorkload(Workload.CHECKOUT)
 public class PaymentService {
 
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final PaymentRepository paymentRepository;
     private final CouponRepository couponRepository;
     private final CouponService couponService;
     private final ObjectMapper objectMapper;
     private final RazorpayClient razorpayClient;
     private final String razorpayKey;
+    // Caps in-flight gateway calls; on virtual threads nothing else bounds them
+    private final Semaphore razorpayPermits;
+    private final long razorpayAcquireTimeoutMs;
 
     public PaymentService(
             OrderRepository orderRepository,
             ProductRepository productRepository,
-            UserRepository userRepository,
+            UserCache userCache,
             PaymentRepository paymentRepository,
             CouponRepository couponRepository,
             CouponService couponService,
             ObjectMapper objectMapper,
             @Value("${razorpay.key.id}") String razorpayKey,
-            @Value("${razorpay.key.secret}") String razorpaySecret) throws RazorpayException {
+            @Value("${razorpay.key.secret}") String razorpaySecret,
+            @Value("${app.payment.razorpay.max-concurrent-calls:20}") int razorpayMaxConcurrentCalls,
+            @Value("${app.payment.razorpay.acquire-timeout-ms:2000}") long razorpayAcquireTimeoutMs) throws RazorpayException {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.paymentRepository = paymentRepository;
         this.couponRepository = couponRepository;
         this.couponService = couponService;
         this.objectMapper = objectMapper;
         this.razorpayKey = razorpayKey;
         this.razorpayClient = new RazorpayClient(razorpayKey, razorpaySecret);
+        this.razorpayPermits = new Semaphore(razorpayMaxConcurrentCalls);
+        this.razorpayAcquireTimeoutMs = razorpayAcquireTimeoutMs;
     }
 
     @Transactional
     public PaymentOrderResponse createPaymentOrder(CreatePaymentOrderRequest request, String userEmail) {
         try {
             // Find user
-            User user = userRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            User user = userCache.getByEmail(userEmail);
 
             // Calculate total and validate products
             int totalCents = 0;
             List<OrderItem> orderItems = new ArrayList<>();
 
+            // One IN query for all lines instead of one lookup per line
+            Map<Long, Product> products = productRepository.findAllById(request.getItems().stream()
+                            .map(CreatePaymentOrderRequest.OrderItemRequest::getProductId)
+                            .toList())
+                    .stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
             for (CreatePaymentOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-                Product product = productRepository.findById(itemRequest.getProductId())
+                Product product = Optional.ofNullable(products.get(itemRequest.getProductId()))
                         .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
 
                 if (product.getInventoryCount() < itemRequest.getQuantity()) {
@@ -99,6 +121,14 @@ public class PaymentService {
                 if (coupon != null && coupon.isValid()) {
                     discountCents = coupon.calculateDiscount(totalCents);
                 }
+
+                if (discountCents > 0) {
+                    if (!couponService.reserveUsage(coupon)) {
+                        throw new RuntimeException("Coupon usage limit reached: " + coupon.getCode());
+                    }
+                } else {
+                    coupon = null;
+                }
             }
 
             int finalAmountCents = totalCents - discountCents;
@@ -133,7 +163,7 @@ public class PaymentService {
                 orderRequest.put("receipt", "order_" + order.getId());
                 orderRequest.put("payment_capture", 1);
 
-                Order razorpayOrder = razorpayClient.orders.create(orderRequest);
+                Order razorpayOrder = createRazorpayOrder(orderRequest);
                 razorpayOrderId = razorpayOrder.get("id");
                 
                 // Save payment record
@@ -156,11 +186,6 @@ public class PaymentService {
                 paymentRepository.save(payment);
             }
 
-            // Increment coupon usage if applied
-            if (coupon != null) {
-                couponService.incrementUsageCount(coupon.getCode());
-            }
-
             // Prepare customer details
             String customerName = request.getShippingAddress().getFullName();
             String customerEmail = request.getShippingAddress().getEmail() != null ? 
@@ -266,6 +291,17 @@ public class PaymentService {
         return mapToOrderDto(order);
     }
 
+    private Order createRazorpayOrder(JSONObject orderRequest) throws RazorpayException, InterruptedException {
+        if (!razorpayPermits.tryAcquire(razorpayAcquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new RuntimeException("Payment gateway is busy, please retry");
+        }
+        try {
+            return razorpayClient.orders.create(orderRequest);
+        } finally {
+            razorpayPermits.release();
+        }
+    }
+
     private OrderDto mapToOrderDto(com.example.ecom.entity.Order order) {
         return OrderDto.from(order);
     }
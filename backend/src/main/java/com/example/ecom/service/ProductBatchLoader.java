@@ -0,0 +1,82 @@
+package com.example.ecom.service;
+
+import com.example.ecom.config.Workload;
+import com.example.ecom.config.WorkloadContext;
+import com.example.ecom.dto.ProductDto;
+import com.example.ecom.entity.Product;
+import com.example.ecom.repository.ProductRepository;
+import com.example.ecom.util.BatchLoader;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Merges concurrent product-by-id and product-by-slug lookups into one
+ * {@code WHERE ... IN (...)} query per short window, with the category fetched
+ * in the same query. Only active products are returned.
+ */
+@Component
+public class ProductBatchLoader {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BatchLoader<Long, ProductDto> byId;
+    private final BatchLoader<String, ProductDto> bySlug;
+
+    public ProductBatchLoader(ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.product.batch-loader.max-batch-size:100}") int maxBatchSize,
+                              @Value("${app.product.batch-loader.window-micros:1000}") long windowMicros,
+                              @Value("${app.product.batch-loader.threads:4}") int threads) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.byId = new BatchLoader<>("product-by-id-loader", this::loadByIds, maxBatchSize, windowMicros, threads);
+        this.bySlug = new BatchLoader<>("product-by-slug-loader", this::loadBySlugs, maxBatchSize, windowMicros, threads);
+    }
+
+    public Optional<ProductDto> findById(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<ProductDto> findBySlug(String slug) {
+        return Optional.ofNullable(bySlug.get(slug));
+    }
+
+    private Map<Long, ProductDto> loadByIds(Collection<Long> ids) {
+        return load(() -> productRepository.findActiveWithCategoryByIdIn(ids), ProductDto::getId);
+    }
+
+    private Map<String, ProductDto> loadBySlugs(Collection<String> slugs) {
+        return load(() -> productRepository.findActiveWithCategoryBySlugIn(slugs), ProductDto::getSlug);
+    }
+
+    // Loader threads serve catalog reads, so they use the browse pool. The read-only
+    // transaction lets the routing data source send the query to a replica.
+    private <K> Map<K, ProductDto> load(Supplier<List<Product>> query, Function<ProductDto, K> key) {
+        Workload previous = WorkloadContext.enter(Workload.BROWSE);
+        try {
+            return readOnlyTransaction.execute(status -> query.get().stream()
+                    .map(ProductDto::from)
+                    .collect(Collectors.toMap(key, Function.identity())));
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        byId.close();
+        bySlug.close();
+    }
+}
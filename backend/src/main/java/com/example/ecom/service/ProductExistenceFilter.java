@@ -0,0 +1,141 @@
+package com.example.ecom.service;
+
+import com.example.ecom.config.DataSourceWorkload;
+import com.example.ecom.config.Workload;
+import com.example.ecom.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "this product cannot exist" for ids and slugs without a query. A Bloom
+ * filter holds every product id and slug; keys it rejects are certainly unknown.
+ * Keys it lets through that still turn out to be missing (false positives, deleted
+ * products) go into a small negative cache for a short time. Products are added as
+ * they are written here or seen by {@link ProductStockView}, and the filter is
+ * rebuilt periodically so it tracks the table's size.
+ */
+@Component
+@Slf4j
+@DataSourceWorkload(Workload.BROWSE)
+public class ProductExistenceFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedProducts;
+    private final long negativeTtlMs;
+    private final int maxNegativeEntries;
+    private final Map<String, Long> missing = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean ready; // Nothing is rejected until the first build completes
+
+    public ProductExistenceFilter(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.product.existence-filter.expected-products:100000}") long expectedProducts,
+                                  @Value("${app.product.existence-filter.negative-ttl-ms:60000}") long negativeTtlMs,
+                                  @Value("${app.product.existence-filter.max-negative-entries:10000}") int maxNegativeEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedProducts = expectedProducts;
+        this.negativeTtlMs = negativeTtlMs;
+        this.maxNegativeEntries = maxNegativeEntries;
+        this.filter = BloomFilter.create(expectedProducts, FALSE_POSITIVE_RATE);
+    }
+
+    public boolean mightExist(Long id) {
+        return mightContainKey(idKey(id));
+    }
+
+    public boolean mightExist(String slug) {
+        return mightContainKey(slugKey(slug));
+    }
+
+    public void add(Long id, String slug) {
+        put(idKey(id));
+        if (slug != null) {
+            put(slugKey(slug));
+        }
+    }
+
+    public void recordMissing(Long id) {
+        remember(idKey(id));
+    }
+
+    public void recordMissing(String slug) {
+        remember(slugKey(slug));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.product.existence-filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM products", Long.class);
+            BloomFilter rebuilt = BloomFilter.create(Math.max(expectedProducts, (count != null ? count : 0) * 2),
+                    FALSE_POSITIVE_RATE);
+            // Products added while the table is scanned go into both filters
+            rebuilding = rebuilt;
+            jdbcTemplate.query("SELECT id, slug FROM products", (RowCallbackHandler) rs -> {
+                rebuilt.put(idKey(rs.getLong(1)));
+                String slug = rs.getString(2);
+                if (slug != null) {
+                    rebuilt.put(slugKey(slug));
+                }
+            });
+            filter = rebuilt;
+            ready = true;
+            long now = System.currentTimeMillis();
+            missing.values().removeIf(expiresAt -> expiresAt <= now);
+        } catch (Exception e) {
+            log.warn("Product existence filter rebuild failed, keeping the current filter: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private boolean mightContainKey(String key) {
+        if (!ready) {
+            return true;
+        }
+        Long expiresAt = missing.get(key);
+        if (expiresAt != null) {
+            if (expiresAt > System.currentTimeMillis()) {
+                return false;
+            }
+            missing.remove(key, expiresAt);
+        }
+        return filter.mightContain(key);
+    }
+
+    private void put(String key) {
+        filter.put(key);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(key);
+        }
+        missing.remove(key);
+    }
+
+    private void remember(String key) {
+        if (missing.size() >= maxNegativeEntries) {
+            long now = System.currentTimeMillis();
+            missing.values().removeIf(expiresAt -> expiresAt <= now);
+            if (missing.size() >= maxNegativeEntries) {
+                return;
+            }
+        }
+        missing.put(key, System.currentTimeMillis() + negativeTtlMs);
+    }
+
+    private static String idKey(long id) {
+        return "id:" + id;
+    }
+
+    private static String slugKey(String slug) {
+        return "slug:" + slug;
+    }
+}
@@ -0,0 +1,501 @@
+package com.example.ecom.service;
+
+import com.example.ecom.config.Workload;
+import com.example.ecom.config.WorkloadContext;
+import com.example.ecom.dto.CreateProductRequest;
+import com.example.ecom.dto.ProductImportJobDto;
+import com.example.ecom.entity.Category;
+import com.example.ecom.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports supplier catalogs from CSV or NDJSON. The upload is spooled to a temp
+ * file and parsed one row at a time by a background job: categories resolve from
+ * an in-memory map, slugs are allocated per batch by {@link SlugAllocator}, and
+ * valid rows are written with JDBC batch inserts. Product caches are evicted once
+ * when the job ends.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO products (id, name, slug, description, price_cents, " +
+            "inventory_count, image_url, sku, is_active, category_id, created_at, updated_at) " +
+            "VALUES (nextval('products_seq'), ?, ?, ?, ?, ?, ?, ?, true, ?, ?, ?)";
+    private static final int MAX_ROW_ERRORS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final SlugAllocator slugAllocator;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final int batchSize;
+    private final long maxUploadBytes;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                CategoryRepository categoryRepository,
+                                SlugAllocator slugAllocator,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                ObjectProvider<CacheManager> cacheManager,
+                                @Value("${app.product.import.batch-size:1000}") int batchSize,
+                                @Value("${app.product.import.max-upload-bytes:524288000}") long maxUploadBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.categoryRepository = categoryRepository;
+        this.slugAllocator = slugAllocator;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.cacheManager = cacheManager;
+        this.batchSize = batchSize;
+        this.maxUploadBytes = maxUploadBytes;
+    }
+
+    public ProductImportJobDto startImport(InputStream body, FeedFormat format) {
+        Path file = spool(body, format);
+
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(LocalDateTime.now().minusDays(1)));
+
+        Job job = new Job(UUID.randomUUID().toString(), format);
+        jobs.put(job.id, job);
+        executor.submit(() -> run(job, file));
+        return job.toDto();
+    }
+
+    public Optional<ProductImportJobDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toDto);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Path spool(InputStream body, FeedFormat format) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("product-import-", "." + format.name().toLowerCase());
+            try (InputStream in = body; OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[64 * 1024];
+                long total = 0;
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxUploadBytes) {
+                        throw new RuntimeException("Import file exceeds " + maxUploadBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return file;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e instanceof RuntimeException runtime ? runtime : new RuntimeException("Failed to read import upload", e);
+        }
+    }
+
+    private void run(Job job, Path file) {
+        long start = System.currentTimeMillis();
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            job.status = "IMPORTING";
+            Map<String, Long> categories = loadCategories();
+            RowSource rows = job.format == FeedFormat.CSV ? new CsvRows(reader) : new NdjsonRows(reader, objectMapper);
+
+            List<PendingRow> batch = new ArrayList<>(batchSize);
+            RawRow raw;
+            while ((raw = rows.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                if (raw.error() != null) {
+                    job.rowFailed(raw.line(), raw.error());
+                    continue;
+                }
+                try {
+                    CreateProductRequest request = toRequest(raw.fields(), categories);
+                    batch.add(new PendingRow(raw.line(), request));
+                } catch (IllegalArgumentException e) {
+                    job.rowFailed(raw.line(), e.getMessage());
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    flush(job, batch);
+                }
+            }
+            flush(job, batch);
+
+            job.status = "COMPLETED";
+            log.info("Product import {} read {} rows, imported {}, failed {} in {} ms", job.id, job.rowsRead.get(),
+                    job.imported.get(), job.failed.get(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            job.status = "FAILED";
+            job.error = e.getMessage();
+            log.error("Product import {} failed", job.id, e);
+        } finally {
+            evictCaches();
+            deleteQuietly(file);
+            job.finishedAt = LocalDateTime.now();
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private CreateProductRequest toRequest(Map<String, String> fields, Map<String, Long> categories) {
+        String categoryRef = firstNonBlank(fields.get("categoryid"), fields.get("category"));
+        Long categoryId = null;
+        if (categoryRef != null) {
+            categoryId = categories.get(categoryRef.trim().toLowerCase());
+            if (categoryId == null) {
+                throw new IllegalArgumentException("Unknown category: " + categoryRef);
+            }
+        }
+
+        CreateProductRequest request = new CreateProductRequest(
+                trimToNull(fields.get("name")),
+                trimToNull(fields.get("description")),
+                parseNumber(fields.get("price"), "price", Double::valueOf),
+                parseNumber(fields.get("inventorycount"), "inventory_count", Integer::valueOf),
+                categoryId,
+                trimToNull(fields.get("imageurl")),
+                trimToNull(fields.get("sku")));
+
+        Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return request;
+    }
+
+    private void flush(Job job, List<PendingRow> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> slugs = slugAllocator.allocateAll(batch.stream().map(row -> row.request().getName()).toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch, slugs));
+            job.imported.addAndGet(batch.size());
+        } catch (DataAccessException e) {
+            // Retry row by row so one bad row does not sink the whole batch; slugs taken
+            // concurrently in the meantime are re-allocated
+            for (PendingRow row : batch) {
+                try {
+                    slugAllocator.insertWithRetry(row.request().getName(), slug -> {
+                        insert(List.of(row), List.of(slug));
+                        return slug;
+                    });
+                    job.imported.incrementAndGet();
+                } catch (DataAccessException rowError) {
+                    job.rowFailed(row.line(), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private void insert(List<PendingRow> rows, List<String> slugs) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PendingRow row = rows.get(i);
+                CreateProductRequest request = row.request();
+                ps.setString(1, request.getName());
+                ps.setString(2, slugs.get(i));
+                ps.setString(3, request.getDescription());
+                ps.setInt(4, (int) Math.round(request.getPrice() * 100));
+                ps.setInt(5, request.getInventoryCount());
+                ps.setString(6, request.getImageUrl());
+                ps.setString(7, request.getSku());
+                ps.setLong(8, request.getCategoryId());
+                ps.setTimestamp(9, now);
+                ps.setTimestamp(10, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    // Rows may reference a category by id, slug or name
+    private Map<String, Long> loadCategories() {
+        Map<String, Long> categories = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categories.put(String.valueOf(category.getId()), category.getId());
+            categories.put(category.getSlug().toLowerCase(), category.getId());
+            categories.put(category.getName().toLowerCase(), category.getId());
+        }
+        return categories;
+    }
+
+    private void evictCaches() {
+        cacheManager.ifAvailable(manager -> List.of("products", "product").stream()
+                .map(manager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear));
+    }
+
+    private static <T> T parseNumber(String value, String field, Function<String, T> parser) {
+        String trimmed = trimToNull(value);
+        if (trimmed == null) {
+            return null;
+        }
+        try {
+            return parser.apply(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static String firstNonBlank(String first, String second) {
+        String value = trimToNull(first);
+        return value != null ? value : trimToNull(second);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    // Column and property names match case-insensitively, ignoring '_', '-' and spaces
+    private static String normalizeKey(String key) {
+        return key.toLowerCase().replaceAll("[^a-z0-9]", "");
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", file);
+        }
+    }
+
+    private record RawRow(long line, Map<String, String> fields, String error) {
+    }
+
+    private record PendingRow(long line, CreateProductRequest request) {
+    }
+
+    private interface RowSource {
+        RawRow next() throws IOException; // Null at end of input
+    }
+
+    // RFC 4180: quoted fields may contain commas, doubled quotes and line breaks
+    private static class CsvRows implements RowSource {
+        private final BufferedReader reader;
+        private List<String> header;
+        private long line = 1;
+
+        private CsvRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            if (header == null) {
+                List<String> names = readRecord();
+                if (names == null) {
+                    return null;
+                }
+                header = names.stream().map(ProductImportService::normalizeKey).toList();
+            }
+
+            while (true) {
+                long startLine = line;
+                List<String> values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+                if (values.size() != header.size()) {
+                    return new RawRow(startLine, null,
+                            "Expected " + header.size() + " columns but found " + values.size());
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    fields.put(header.get(i), values.get(i));
+                }
+                return new RawRow(startLine, fields, null);
+            }
+        }
+
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static class NdjsonRows implements RowSource {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        private NdjsonRows(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (JsonProcessingException e) {
+                    return new RawRow(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+                if (!node.isObject()) {
+                    return new RawRow(line, null, "Expected a JSON object");
+                }
+                Map<String, String> fields = new HashMap<>();
+                node.fields().forEachRemaining(entry ->
+                        fields.put(normalizeKey(entry.getKey()), entry.getValue().isNull() ? null : entry.getValue().asText()));
+                return new RawRow(line, fields, null);
+            }
+            return null;
+        }
+    }
+
+    private static class Job {
+        private final String id;
+        private final FeedFormat format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ProductImportJobDto.RowError> rowErrors = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = "QUEUED";
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id, FeedFormat format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        private void rowFailed(long line, String message) {
+            if (failed.incrementAndGet() <= MAX_ROW_ERRORS) {
+                rowErrors.add(new ProductImportJobDto.RowError(line, message));
+            }
+        }
+
+        private ProductImportJobDto toDto() {
+            List<ProductImportJobDto.RowError> errors;
+            synchronized (rowErrors) {
+                errors = new ArrayList<>(rowErrors);
+            }
+            return ProductImportJobDto.builder()
+                    .jobId(id)
+                    .status(status)
+                    .format(format.name())
+                    .rowsRead(rowsRead.get())
+                    .imported(imported.get())
+                    .failed(failed.get())
+                    .rowErrors(errors)
+                    .error(error)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.ecom.service;
 
+import com.example.ecom.config.DataSourceWorkload;
+import com.example.ecom.config.Workload;
 import com.example.ecom.dto.CreateProductRequest;
+import com.example.ecom.dto.FieldSet;
 import com.example.ecom.dto.ProductDto;
 import com.example.ecom.entity.Category;
 import com.example.ecom.entity.Product;
@@ -14,6 +17,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
@@ -22,18 +28,26 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@DataSourceWorkload(Workload.BROWSE)
 public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-
-    @Cacheable(value = "products", key = "#pageable.pageNumber + '_' + #pageable.pageSize + '_' + #pageable.sort.toString()")
+    private final SlugAllocator slugAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductStockView productStockView;
+    private final ProductBatchLoader productBatchLoader;
+    private final ProductExistenceFilter productExistenceFilter;
+
+    @Cacheable(value = "products", sync = true, key = "#pageable.pageNumber + '_' + #pageable.pageSize + '_' + #pageable.sort.toString()")
+    @Transactional(readOnly = true)
     public Page<ProductDto> getAllProducts(Pageable pageable) {
         return productRepository.findByIsActiveTrue(pageable)
                 .map(ProductDto::from);
     }
 
-    @Cacheable(value = "products", key = "'search_' + #query + '_' + #pageable.pageNumber")
+    @Cacheable(value = "products", sync = true, key = "'search_' + #query + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+    @Transactional(readOnly = true)
     public Page<ProductDto> searchProducts(String query, Pageable pageable) {
         if (!StringUtils.hasText(query)) {
             return getAllProducts(pageable);
@@ -42,11 +56,13 @@ public class ProductService {
                 .map(ProductDto::from);
     }
 
+    @Transactional(readOnly = true)
     public Page<ProductDto> getProductsByCategory(Long categoryId, Pageable pageable) {
         return productRepository.findByCategory_Id(categoryId, pageable)
                 .map(ProductDto::from);
     }
 
+    @Transactional(readOnly = true)
     public Page<ProductDto> filterProducts(Long categoryId, Integer minPrice, Integer maxPrice, 
                                           String query, Pageable pageable) {
         // Convert price from dollars to cents
@@ -58,49 +74,73 @@ public class ProductService {
                 .map(ProductDto::from);
     }
 
-    @Cacheable(value = "product", key = "#id")
+    // Sparse list requests select only the requested columns, so they bypass the full-DTO cache
+    @Transactional(readOnly = true)
+    public Page<ProductDto> findProducts(FieldSet fields, Long categoryId, Integer minPrice, Integer maxPrice,
+                                         String query, Pageable pageable) {
+        return productRepository.findActiveProjected(fields, categoryId,
+                minPrice != null ? minPrice * 100 : null, maxPrice != null ? maxPrice * 100 : null,
+                query, pageable);
+    }
+
+    // Misses are not cached (SingleFlightCache never stores a null). Not transactional:
+    // cache misses are batched with concurrent ones and loaded on the loader's threads,
+    // each batch in its own read-only transaction.
+    @Cacheable(value = "product", sync = true, key = "#id")
     public Optional<ProductDto> getProductById(Long id) {
-        return productRepository.findById(id)
-                .filter(Product::getIsActive)
-                .map(ProductDto::from);
+        // Unknown ids (crawlers, dead links) are answered from memory
+        if (!productExistenceFilter.mightExist(id)) {
+            return Optional.empty();
+        }
+        Optional<ProductDto> product = productBatchLoader.findById(id);
+        if (product.isEmpty()) {
+            productExistenceFilter.recordMissing(id);
+        }
+        return product;
     }
 
-    @Cacheable(value = "product", key = "'slug_' + #slug")
+    @Cacheable(value = "product", sync = true, key = "'slug_' + #slug")
     public Optional<ProductDto> getProductBySlug(String slug) {
-        return productRepository.findBySlug(slug)
-                .filter(Product::getIsActive)
-                .map(ProductDto::from);
+        if (!productExistenceFilter.mightExist(slug)) {
+            return Optional.empty();
+        }
+        Optional<ProductDto> product = productBatchLoader.findBySlug(slug);
+        if (product.isEmpty()) {
+            productExistenceFilter.recordMissing(slug);
+        }
+        return product;
     }
 
-    @Transactional
+    // Each attempt runs in its own transaction so a slug conflict can be retried
     @CacheEvict(value = {"products", "product"}, allEntries = true)
+    @DataSourceWorkload(Workload.ADMIN)
     public ProductDto createProduct(CreateProductRequest request) {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + request.getCategoryId()));
 
-        String slug = generateSlug(request.getName());
-        
-        Product product = Product.builder()
-                .name(request.getName())
-                .slug(slug)
-                .description(request.getDescription())
-                .priceCents((int)(request.getPrice() * 100))
-                .inventoryCount(request.getInventoryCount())
-                .imageUrl(request.getImageUrl())
-                .category(category)
-                .isActive(true)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
-
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct = slugAllocator.insertWithRetry(request.getName(), slug ->
+                transactionTemplate.execute(status -> productRepository.saveAndFlush(Product.builder()
+                        .name(request.getName())
+                        .slug(slug)
+                        .sku(request.getSku())
+                        .description(request.getDescription())
+                        .priceCents((int)(request.getPrice() * 100))
+                        .inventoryCount(request.getInventoryCount())
+                        .imageUrl(request.getImageUrl())
+                        .category(category)
+                        .isActive(true)
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build())));
         log.info("Created new product: {} with slug: {}", savedProduct.getName(), savedProduct.getSlug());
+        recordAfterCommit(savedProduct);
         
         return ProductDto.from(savedProduct);
     }
 
     @Transactional
     @CacheEvict(value = {"products", "product"}, allEntries = true)
+    @DataSourceWorkload(Workload.ADMIN)
     public ProductDto updateProduct(Long id, CreateProductRequest request) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -113,17 +153,20 @@ public class ProductService {
         product.setPriceCents((int)(request.getPrice() * 100));
         product.setInventoryCount(request.getInventoryCount());
         product.setImageUrl(request.getImageUrl());
+        product.setSku(request.getSku());
         product.setCategory(category);
         product.setUpdatedAt(LocalDateTime.now());
 
         Product savedProduct = productRepository.save(product);
         log.info("Updated product: {}", savedProduct.getName());
+        recordAfterCommit(savedProduct);
         
         return ProductDto.from(savedProduct);
     }
 
     @Transactional
     @CacheEvict(value = {"products", "product"}, allEntries = true)
+    @DataSourceWorkload(Workload.ADMIN)
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -131,24 +174,27 @@ public class ProductService {
         product.setIsActive(false);
         product.setUpdatedAt(LocalDateTime.now());
         productRepository.save(product);
+        recordAfterCommit(product);
         
         log.info("Soft deleted product: {}", product.getName());
     }
 
-    private String generateSlug(String name) {
-        String baseSlug = name.toLowerCase()
-                .replaceAll("[^a-z0-9\\s]", "")
-                .replaceAll("\\s+", "-")
-                .trim();
-        
-        String slug = baseSlug;
-        int counter = 1;
-        
-        while (productRepository.existsBySlug(slug)) {
-            slug = baseSlug + "-" + counter;
-            counter++;
+    // Only after commit, so a validator never names a version readers cannot see yet
+    private void recordAfterCommit(Product product) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(product);
+            return;
         }
-        
-        return slug;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(product);
+            }
+        });
+    }
+
+    private void record(Product product) {
+        productStockView.record(product);
+        productExistenceFilter.add(product.getId(), product.getSlug());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package com.example.ecom.service;
+
+import com.example.ecom.config.DataSourceWorkload;
+import com.example.ecom.config.Workload;
+import com.example.ecom.dto.ProductDto;
+import com.example.ecom.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Product id to inventory count and last modification time, kept apart from the
+ * cached static product data. Refreshed incrementally from {@code products.updated_at}
+ * every few seconds and immediately on {@link StockChangedEvent} and local writes;
+ * responses merge the counts over cached DTOs and derive their validators from the
+ * modification times without loading the product.
+ */
+@Component
+@Slf4j
+@DataSourceWorkload(Workload.BROWSE)
+public class ProductStockView {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductExistenceFilter existenceFilter;
+    private final long overlapMs;
+    private final long fullReloadIntervalMs;
+    private final Map<Long, Stamp> stamps = new ConcurrentHashMap<>();
+    private final Map<String, Long> slugs = new ConcurrentHashMap<>();
+    // Catalog version: moves forward whenever any stamp changes; 0 until the first load
+    private final AtomicLong catalogLastModified = new AtomicLong();
+    private volatile Timestamp highWatermark;
+    private volatile long lastFullReload;
+
+    public ProductStockView(JdbcTemplate jdbcTemplate,
+                            ProductExistenceFilter existenceFilter,
+                            @Value("${app.cache.stock.overlap-ms:10000}") long overlapMs,
+                            @Value("${app.cache.stock.full-reload-interval-ms:600000}") long fullReloadIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.existenceFilter = existenceFilter;
+        this.overlapMs = overlapMs;
+        this.fullReloadIntervalMs = fullReloadIntervalMs;
+    }
+
+    public ProductDto withStock(ProductDto product) {
+        Stamp stamp = product != null ? stamps.get(product.getId()) : null;
+        if (stamp == null || Integer.valueOf(stamp.inventoryCount()).equals(product.getInventoryCount())) {
+            return product;
+        }
+        // Copy, never mutate: the DTO may be shared by an in-memory cache
+        return product.toBuilder().inventoryCount(stamp.inventoryCount()).build();
+    }
+
+    public Page<ProductDto> withStock(Page<ProductDto> page) {
+        return page.map(this::withStock);
+    }
+
+    // Epoch millis of the product's last change, or 0 when the view does not know it yet
+    public long lastModified(Long id) {
+        Stamp stamp = stamps.get(id);
+        return stamp != null ? stamp.updatedAt() : 0;
+    }
+
+    public long lastModified(String slug) {
+        Long id = slugs.get(slug);
+        return id != null ? lastModified(id) : 0;
+    }
+
+    public long catalogLastModified() {
+        return catalogLastModified.get();
+    }
+
+    public void record(Product product) {
+        long updatedAt = toMillis(product.getUpdatedAt());
+        if (put(product.getId(), product.getSlug(), product.getInventoryCount(), updatedAt)) {
+            advanceVersion(updatedAt);
+        }
+    }
+
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        boolean changed = false;
+        long newest = 0;
+        for (StockChangedEvent.StockChange change : event.changes()) {
+            long updatedAt = toMillis(change.updatedAt());
+            if (put(change.productId(), change.slug(), change.inventoryCount(), updatedAt)) {
+                changed = true;
+                newest = Math.max(newest, updatedAt);
+            }
+        }
+        if (changed) {
+            advanceVersion(newest);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.stock.refresh-interval-ms:2000}")
+    public void refresh() {
+        try {
+            long now = System.currentTimeMillis();
+            Timestamp since = highWatermark;
+            if (since == null || now - lastFullReload > fullReloadIntervalMs) {
+                load("SELECT id, slug, inventory_count, updated_at FROM products", null);
+                lastFullReload = now;
+            } else {
+                // Overlap the window so rows committed late with an earlier updated_at are not missed
+                load("SELECT id, slug, inventory_count, updated_at FROM products WHERE updated_at > ?",
+                        new Timestamp(since.getTime() - overlapMs));
+            }
+        } catch (Exception e) {
+            log.warn("Stock view refresh failed, serving last known counts: {}", e.getMessage());
+        }
+    }
+
+    private void load(String sql, Timestamp since) {
+        Timestamp[] max = {highWatermark};
+        long[] newestChanged = {-1};
+        RowCallbackHandler handler = rs -> {
+            Timestamp updatedAt = rs.getTimestamp(4);
+            long stamp = updatedAt != null ? updatedAt.getTime() : 0;
+            if (put(rs.getLong(1), rs.getString(2), rs.getInt(3), stamp)) {
+                newestChanged[0] = Math.max(newestChanged[0], stamp);
+            }
+            if (updatedAt != null && (max[0] == null || updatedAt.after(max[0]))) {
+                max[0] = updatedAt;
+            }
+        };
+        if (since == null) {
+            jdbcTemplate.query(sql, handler);
+        } else {
+            jdbcTemplate.query(sql, handler, since);
+        }
+        highWatermark = max[0] != null ? max[0] : new Timestamp(0);
+        if (newestChanged[0] >= 0) {
+            advanceVersion(newestChanged[0]);
+        }
+    }
+
+    // True when the product's stamp actually changed
+    private boolean put(Long id, String slug, Integer inventoryCount, long updatedAt) {
+        Stamp fresh = new Stamp(inventoryCount != null ? inventoryCount : 0, updatedAt);
+        boolean[] changed = {false};
+        // Never move a product back to an older stamp when sources race
+        stamps.compute(id, (key, current) -> {
+            if (current != null && (fresh.updatedAt() < current.updatedAt() || fresh.equals(current))) {
+                return current;
+            }
+            changed[0] = true;
+            return fresh;
+        });
+        if (slug != null) {
+            slugs.put(slug, id);
+        }
+        // Also how products created by other instances or the bulk import reach the filter
+        existenceFilter.add(id, slug);
+        return changed[0];
+    }
+
+    // updated_at is taken at flush, not at commit, so a late commit can carry an older stamp
+    // than the newest one already seen; the catalog version still has to move past it.
+    // Advanced once per batch so a full reload does not push it ahead of the clock.
+    private void advanceVersion(long newest) {
+        catalogLastModified.accumulateAndGet(newest, (current, stamp) -> Math.max(current + 1, stamp));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time).getTime() : System.currentTimeMillis();
+    }
+
+    private record Stamp(int inventoryCount, long updatedAt) {
+    }
+}
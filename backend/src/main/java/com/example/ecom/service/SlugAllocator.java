@@ -0,0 +1,153 @@
+package com.example.ecom.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Hands out unique product slugs ({@code base}, {@code base-1}, {@code base-2}, ...).
+ * The highest suffix in use per base is loaded with one prefix query and then kept
+ * in memory, so repeated names cost no extra round trips. Another writer can still
+ * take a slug first; {@link #insertWithRetry} re-reads the base and tries again
+ * when the insert hits the unique constraint.
+ */
+@Component
+@Slf4j
+public class SlugAllocator {
+
+    private static final int PREFIX_CHUNK = 100;
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxAttempts;
+    private final int maxCachedPrefixes;
+    // Base slug -> highest suffix in use (0 = the bare base, -1 = nothing taken)
+    private final Map<String, Integer> maxSuffix = new ConcurrentHashMap<>();
+
+    public SlugAllocator(JdbcTemplate jdbcTemplate,
+                         @Value("${app.product.slug.max-attempts:3}") int maxAttempts,
+                         @Value("${app.product.slug.max-cached-prefixes:100000}") int maxCachedPrefixes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxAttempts = maxAttempts;
+        this.maxCachedPrefixes = maxCachedPrefixes;
+    }
+
+    public static String toBaseSlug(String name) {
+        String base = name.toLowerCase()
+                .replaceAll("[^a-z0-9\\s]", "")
+                .trim()
+                .replaceAll("\\s+", "-");
+        return base.isEmpty() ? "product" : base;
+    }
+
+    public String allocate(String name) {
+        String base = toBaseSlug(name);
+        if (!maxSuffix.containsKey(base)) {
+            load(List.of(base));
+        }
+        return next(base);
+    }
+
+    // Resolves all bases with one query per chunk of distinct prefixes
+    public List<String> allocateAll(List<String> names) {
+        List<String> bases = names.stream().map(SlugAllocator::toBaseSlug).toList();
+        List<String> missing = bases.stream().distinct().filter(base -> !maxSuffix.containsKey(base)).toList();
+        for (int from = 0; from < missing.size(); from += PREFIX_CHUNK) {
+            load(missing.subList(from, Math.min(from + PREFIX_CHUNK, missing.size())));
+        }
+        return bases.stream().map(this::next).toList();
+    }
+
+    /**
+     * Runs {@code insert} with a freshly allocated slug, re-reading the base and
+     * retrying when the slug turned out to be taken. The insert must run in its own
+     * transaction so a conflict does not poison the caller's.
+     */
+    public <T> T insertWithRetry(String name, Function<String, T> insert) {
+        for (int attempt = 1; ; attempt++) {
+            String slug = allocate(name);
+            try {
+                return insert.apply(slug);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= maxAttempts || !isSlugConflict(e)) {
+                    throw e;
+                }
+                log.debug("Slug {} was taken concurrently, retrying", slug);
+                invalidate(name);
+            }
+        }
+    }
+
+    public void invalidate(String name) {
+        maxSuffix.remove(toBaseSlug(name));
+    }
+
+    public static boolean isSlugConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                return sql.getMessage() != null && sql.getMessage().contains("(slug)");
+            }
+        }
+        return false;
+    }
+
+    private String next(String base) {
+        int suffix = maxSuffix.merge(base, 0, (current, ignored) -> current + 1);
+        String slug = suffix == 0 ? base : base + "-" + suffix;
+        // The new slug may itself be a base for a later name such as "Tee 2"
+        maxSuffix.computeIfPresent(slug, (key, current) -> Math.max(current, 0));
+        return slug;
+    }
+
+    private void load(List<String> bases) {
+        if (maxSuffix.size() + bases.size() > maxCachedPrefixes) {
+            maxSuffix.clear();
+        }
+
+        // Index-friendly prefix scans; init-scripts/03-product-slug-index.sql adds a text_pattern_ops index
+        StringBuilder sql = new StringBuilder("SELECT slug FROM products WHERE slug IN (");
+        sql.append(String.join(", ", Collections.nCopies(bases.size(), "?"))).append(")");
+        List<Object> args = new ArrayList<>(bases);
+        for (String base : bases) {
+            sql.append(" OR slug LIKE ?");
+            args.add(base + "-%");
+        }
+
+        Map<String, Integer> found = new HashMap<>();
+        bases.forEach(base -> found.put(base, -1));
+        jdbcTemplate.query(sql.toString(), rs -> {
+            String slug = rs.getString(1);
+            if (found.containsKey(slug)) {
+                found.merge(slug, 0, Math::max);
+            }
+            int dash = slug.lastIndexOf('-');
+            if (dash > 0 && isDigits(slug, dash + 1)) {
+                String base = slug.substring(0, dash);
+                if (found.containsKey(base)) {
+                    found.merge(base, Integer.parseInt(slug.substring(dash + 1)), Math::max);
+                }
+            }
+        }, args.toArray());
+        found.forEach((base, suffix) -> maxSuffix.merge(base, suffix, Math::max));
+    }
+
+    private static boolean isDigits(String value, int from) {
+        int length = value.length() - from;
+        if (length == 0 || length > 9) {
+            return false;
+        }
+        for (int i = from; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ecom.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published after a batch of stock counts has been committed, so listeners can
+ * refresh exactly the products that changed.
+ */
+public record StockChangedEvent(List<StockChange> changes) {
+
+    public record StockChange(Long productId, String slug, int inventoryCount, LocalDateTime updatedAt) {
+    }
+}
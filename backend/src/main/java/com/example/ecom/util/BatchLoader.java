@@ -0,0 +1,117 @@
+package com.example.ecom.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent single-key lookups into one bulk load. Keys requested within
+ * {@code window} of the first pending key, or until {@code maxBatchSize} distinct
+ * keys are pending, are loaded together and each caller's future completes with its
+ * own value (null when the bulk load did not return the key). Callers asking for a
+ * key that is already pending share its future.
+ */
+public class BatchLoader<K, V> implements AutoCloseable {
+
+    private final Function<Collection<K>, Map<K, V>> bulkLoad;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService loaders;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private Map<K, CompletableFuture<V>> pending = new HashMap<>();
+    private long generation;
+
+    public BatchLoader(String name, Function<Collection<K>, Map<K, V>> bulkLoad, int maxBatchSize,
+                       long windowMicros, int loaderThreads) {
+        this.bulkLoad = bulkLoad;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemon(name + "-timer"));
+        this.loaders = Executors.newFixedThreadPool(loaderThreads, daemon(name));
+    }
+
+    public CompletableFuture<V> load(K key) {
+        lock.lock();
+        try {
+            CompletableFuture<V> future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (pending.size() >= maxBatchSize) {
+                dispatch();
+            } else if (pending.size() == 1) {
+                long scheduledGeneration = generation;
+                timer.schedule(() -> dispatchIfStill(scheduledGeneration), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            return future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits for the value, rethrowing a failed bulk load's own exception
+    public V get(K key) {
+        try {
+            return load(key).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void dispatchIfStill(long scheduledGeneration) {
+        lock.lock();
+        try {
+            // The batch may already have gone out because it filled up
+            if (generation == scheduledGeneration && !pending.isEmpty()) {
+                dispatch();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void dispatch() {
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new HashMap<>();
+        generation++;
+        try {
+            loaders.execute(() -> run(batch));
+        } catch (RejectedExecutionException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void run(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> values = bulkLoad.apply(batch.keySet());
+            batch.forEach((key, future) -> future.complete(values.get(key)));
+        } catch (Throwable e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        loaders.shutdown();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,38 @@
+-- Move entity IDs from IDENTITY columns to pooled sequences (allocationSize = 50)
+-- so Hibernate can batch inserts. Safe to re-run; on a fresh database the tables
+-- do not exist yet and Hibernate creates the sequences itself.
+-- Apply to an existing database with: psql -d ecom -f init-scripts/02-sequence-ids.sql
+
+DO $$
+DECLARE
+    t TEXT;
+    max_id BIGINT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'categories', 'products', 'coupons', 'orders', 'order_items', 'payments']
+    LOOP
+        IF to_regclass('public.' || t) IS NULL THEN
+            CONTINUE;
+        END IF;
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_seq');
+
+        -- The pooled optimizer hands out (value - 49 .. value], so the next value must
+        -- leave a full block above the current maximum
+        EXECUTE format('SELECT max(id) FROM %I', t) INTO max_id;
+        IF max_id IS NOT NULL THEN
+            PERFORM setval(t || '_seq', greatest(max_id, (SELECT last_value FROM pg_sequences
+                WHERE schemaname = 'public' AND sequencename = t || '_seq')), true);
+        END IF;
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = 'public' AND table_name = t AND column_name = 'id'
+                     AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY', t);
+        END IF;
+        -- Raw SQL inserts that omit the id keep working
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, t || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', t || '_seq', t);
+    END LOOP;
+END
+$$;
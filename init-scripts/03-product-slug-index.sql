@@ -0,0 +1,11 @@
+-- Lets SlugAllocator's "slug LIKE 'base-%'" prefix scans use an index regardless of
+-- the database collation. Safe to re-run; skipped until Hibernate has created the table.
+-- Apply to an existing database with: psql -d ecom -f init-scripts/03-product-slug-index.sql
+
+DO $$
+BEGIN
+    IF to_regclass('public.products') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_products_slug_pattern ON products (slug text_pattern_ops);
+    END IF;
+END
+$$;